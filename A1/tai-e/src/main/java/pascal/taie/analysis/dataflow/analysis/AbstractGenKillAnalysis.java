@@ -0,0 +1,150 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.dataflow.solver.Solver;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
+
+/**
+ * Base class for gen/kill data-flow analyses, i.e., analyses whose transfer
+ * function of a node is OUT = gen &cup; (IN - kill) for forward analyses,
+ * or IN = gen &cup; (OUT - kill) for backward analyses.
+ * <p>
+ * When analyzing an IR, the gen and kill sets of all nodes are computed
+ * once before solving, and each transfer then updates the target fact
+ * in place, without creating any temporary facts.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <E>    type of elements in data-flow facts
+ */
+public abstract class AbstractGenKillAnalysis<Node, E>
+        extends AbstractDataflowAnalysis<Node, SetFact<E>> {
+
+    protected AbstractGenKillAnalysis(AnalysisConfig config) {
+        super(config);
+    }
+
+    /**
+     * Computes the gen and kill sets of given node,
+     * and adds them to the given (empty) facts.
+     */
+    protected abstract void computeGenKill(
+            Node node, SetFact<E> gen, SetFact<E> kill);
+
+    @Override
+    public DataflowResult<Node, SetFact<E>> analyze(IR ir) {
+        CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
+        return Solver.makeSolver(new GenKillTable(cfg)).solve(cfg);
+    }
+
+    /**
+     * Transfers given node with its gen and kill sets computed on the fly.
+     * This is used only when the analysis is driven outside
+     * {@link #analyze(IR)}, which transfers nodes with precomputed sets.
+     */
+    @Override
+    public boolean transferNode(Node node, SetFact<E> in, SetFact<E> out) {
+        SetFact<E> gen = newInitialFact();
+        SetFact<E> kill = newInitialFact();
+        computeGenKill(node, gen, kill);
+        return transfer(gen, kill, in, out);
+    }
+
+    private boolean transfer(SetFact<E> gen, SetFact<E> kill,
+                             SetFact<E> in, SetFact<E> out) {
+        return isForward() ?
+                out.setGenKill(gen, in, kill) :
+                in.setGenKill(gen, out, kill);
+    }
+
+    /**
+     * The analysis on a specific CFG, which holds the gen and kill sets
+     * of all nodes of the CFG.
+     */
+    private class GenKillTable implements DataflowAnalysis<Node, SetFact<E>> {
+
+        private final Map<Node, SetFact<E>> gens;
+
+        private final Map<Node, SetFact<E>> kills;
+
+        private GenKillTable(CFG<Node> cfg) {
+            gens = Maps.newMap(cfg.getNumberOfNodes());
+            kills = Maps.newMap(cfg.getNumberOfNodes());
+            for (Node node : cfg) {
+                SetFact<E> gen = newInitialFact(cfg);
+                SetFact<E> kill = newInitialFact(cfg);
+                computeGenKill(node, gen, kill);
+                gens.put(node, gen);
+                kills.put(node, kill);
+            }
+        }
+
+        @Override
+        public boolean isForward() {
+            return AbstractGenKillAnalysis.this.isForward();
+        }
+
+        @Override
+        public SetFact<E> newBoundaryFact(CFG<Node> cfg) {
+            return AbstractGenKillAnalysis.this.newBoundaryFact(cfg);
+        }
+
+        @Override
+        public SetFact<E> newInitialFact() {
+            return AbstractGenKillAnalysis.this.newInitialFact();
+        }
+
+        @Override
+        public SetFact<E> newInitialFact(CFG<Node> cfg) {
+            return AbstractGenKillAnalysis.this.newInitialFact(cfg);
+        }
+
+        @Override
+        public void meetInto(SetFact<E> fact, SetFact<E> target) {
+            AbstractGenKillAnalysis.this.meetInto(fact, target);
+        }
+
+        @Override
+        public boolean transferNode(Node node, SetFact<E> in, SetFact<E> out) {
+            return transfer(gens.get(node), kills.get(node), in, out);
+        }
+
+        @Override
+        public boolean needTransferEdge(Edge<Node> edge) {
+            return AbstractGenKillAnalysis.this.needTransferEdge(edge);
+        }
+
+        @Override
+        public SetFact<E> transferEdge(Edge<Node> edge, SetFact<E> nodeFact) {
+            return AbstractGenKillAnalysis.this.transferEdge(edge, nodeFact);
+        }
+    }
+}
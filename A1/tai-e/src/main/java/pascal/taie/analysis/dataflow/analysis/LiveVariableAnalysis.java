@@ -22,26 +22,30 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import pascal.taie.analysis.dataflow.fact.BitSetFact;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.config.AnalysisConfig;
-import pascal.taie.ir.exp.LValue;
+import pascal.taie.ir.exp.RValue;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Stmt;
 
-import java.util.Optional;
-import java.util.Set;
-
 /**
  * Implementation of classic live variable analysis.
  */
 public class LiveVariableAnalysis extends
-        AbstractDataflowAnalysis<Stmt, SetFact<Var>> {
+        AbstractGenKillAnalysis<Stmt, Var> {
 
     public static final String ID = "livevar";
 
+    /**
+     * Whether represent facts as bit vectors over variable indexes.
+     */
+    private final boolean bitSet;
+
     public LiveVariableAnalysis(AnalysisConfig config) {
         super(config);
+        bitSet = getOptions().getBooleanOrDefault("bitset", false);
     }
 
     @Override
@@ -52,7 +56,7 @@ public class LiveVariableAnalysis extends
     @Override
     public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
         // TODO - finish me
-        return new SetFact<Var>();
+        return newInitialFact(cfg);
     }
 
     @Override
@@ -61,6 +65,11 @@ public class LiveVariableAnalysis extends
         return new SetFact<Var>();
     }
 
+    @Override
+    public SetFact<Var> newInitialFact(CFG<Stmt> cfg) {
+        return bitSet ? new BitSetFact<>(cfg.getIR().getVars()) : newInitialFact();
+    }
+
     @Override
     public void meetInto(SetFact<Var> fact, SetFact<Var> target) {
         // TODO - finish me
@@ -68,26 +77,17 @@ public class LiveVariableAnalysis extends
     }
 
     @Override
-    public boolean transferNode(Stmt stmt, SetFact<Var> in, SetFact<Var> out) {
-        // TODO - finish me
+    protected void computeGenKill(Stmt stmt, SetFact<Var> gen, SetFact<Var> kill) {
         // IN(B) = useB U (OUT(B) - defB)
-        SetFact<Var> tmp = in.copy();
-        in.set(out.copy());
-
-        if(stmt.getDef().isPresent()){
-            LValue value = stmt.getDef().get();
-            if (value instanceof Var){
-                in.remove((Var) stmt.getDef().get());
+        stmt.getDef().ifPresent(def -> {
+            if (def instanceof Var) {
+                kill.add((Var) def);
+            }
+        });
+        for (RValue use : stmt.getUses()) {
+            if (use instanceof Var) {
+                gen.add((Var) use);
             }
         }
-
-        for(int i=0;i<stmt.getUses().size();i++){
-            if (stmt.getUses().get(i) instanceof Var)
-                in.add((Var) stmt.getUses().get(i));
-        }
-        if (in.equals(tmp)){
-            return false;
-        }
-        return true;
     }
 }
@@ -0,0 +1,294 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.Indexable;
+import pascal.taie.util.collection.CollectionUtils;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Represents set-like data-flow facts as bit vectors.
+ * <p>
+ * The elements of a bit-set fact are drawn from a fixed universe,
+ * e.g., all variables of a method, and the element of index {@code i}
+ * in the universe must have {@link Indexable#getIndex()} {@code i}.
+ * Each element is represented by one bit, thus union, intersection,
+ * copy and equality check are performed word by word, without hashing
+ * the elements.
+ * <p>
+ * Facts that participate in the same analysis should be created with
+ * the same universe.
+ *
+ * @param <E> type of elements
+ */
+public class BitSetFact<E extends Indexable> extends SetFact<E> {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    /**
+     * All elements that may be contained in this fact, indexed by
+     * {@link Indexable#getIndex()}.
+     */
+    private final List<E> universe;
+
+    private final long[] words;
+
+    /**
+     * Constructs an empty bit-set fact over given universe.
+     */
+    public BitSetFact(List<E> universe) {
+        this(universe, new long[wordIndex(universe.size() - 1) + 1]);
+    }
+
+    private BitSetFact(List<E> universe, long[] words) {
+        this.universe = universe;
+        this.words = words;
+    }
+
+    private static int wordIndex(int bitIndex) {
+        return bitIndex >> ADDRESS_BITS_PER_WORD;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        int i = e.getIndex();
+        return (words[wordIndex(i)] & (1L << i)) != 0;
+    }
+
+    @Override
+    public boolean add(E e) {
+        int i = e.getIndex();
+        int wi = wordIndex(i);
+        long old = words[wi];
+        words[wi] = old | (1L << i);
+        return words[wi] != old;
+    }
+
+    @Override
+    public boolean remove(E e) {
+        int i = e.getIndex();
+        int wi = wordIndex(i);
+        long old = words[wi];
+        words[wi] = old & ~(1L << i);
+        return words[wi] != old;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<E> filter) {
+        boolean changed = false;
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            if (filter.test(universe.get(i))) {
+                words[wordIndex(i)] &= ~(1L << i);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean union(SetFact<E> other) {
+        if (other instanceof BitSetFact<E> that) {
+            boolean changed = false;
+            for (int i = 0; i < words.length; ++i) {
+                long old = words[i];
+                words[i] = old | that.words[i];
+                changed |= words[i] != old;
+            }
+            return changed;
+        }
+        boolean changed = false;
+        for (E e : other.elements()) {
+            changed |= add(e);
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean intersect(SetFact<E> other) {
+        if (other instanceof BitSetFact<E> that) {
+            boolean changed = false;
+            for (int i = 0; i < words.length; ++i) {
+                long old = words[i];
+                words[i] = old & that.words[i];
+                changed |= words[i] != old;
+            }
+            return changed;
+        }
+        return removeIf(e -> !other.contains(e));
+    }
+
+    @Override
+    public void set(SetFact<E> other) {
+        if (other instanceof BitSetFact<E> that) {
+            System.arraycopy(that.words, 0, words, 0, words.length);
+        } else {
+            clear();
+            union(other);
+        }
+    }
+
+    @Override
+    public boolean setGenKill(SetFact<E> gen, SetFact<E> src, SetFact<E> kill) {
+        if (gen instanceof BitSetFact<E> g &&
+                src instanceof BitSetFact<E> s &&
+                kill instanceof BitSetFact<E> k) {
+            boolean changed = false;
+            for (int i = 0; i < words.length; ++i) {
+                long old = words[i];
+                words[i] = g.words[i] | (s.words[i] & ~k.words[i]);
+                changed |= words[i] != old;
+            }
+            return changed;
+        }
+        return super.setGenKill(gen, src, kill);
+    }
+
+    @Override
+    public BitSetFact<E> copy() {
+        return new BitSetFact<>(universe, words.clone());
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Stream<E> stream() {
+        return elements().stream();
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    @Override
+    protected Set<E> elements() {
+        return new AbstractSet<>() {
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Indexable indexable
+                        && indexable.getIndex() < universe.size()
+                        && universe.get(indexable.getIndex()) == o
+                        && BitSetFact.this.contains(universe.get(indexable.getIndex()));
+            }
+
+            @Override
+            public Iterator<E> iterator() {
+                return new Iterator<>() {
+
+                    private int next = nextSetBit(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return next >= 0;
+                    }
+
+                    @Override
+                    public E next() {
+                        if (next < 0) {
+                            throw new NoSuchElementException();
+                        }
+                        E e = universe.get(next);
+                        next = nextSetBit(next + 1);
+                        return e;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return BitSetFact.this.size();
+            }
+        };
+    }
+
+    /**
+     * @return index of the first bit that is set on or after given index,
+     * or -1 if there is no such bit.
+     */
+    private int nextSetBit(int fromIndex) {
+        int wi = wordIndex(fromIndex);
+        if (wi >= words.length) {
+            return -1;
+        }
+        long word = words[wi] & (-1L << fromIndex);
+        while (true) {
+            if (word != 0) {
+                return (wi << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+            }
+            if (++wi == words.length) {
+                return -1;
+            }
+            word = words[wi];
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof BitSetFact<?> that) {
+            return Arrays.equals(words, that.words);
+        }
+        if (!(o instanceof SetFact<?> that)) {
+            return false;
+        }
+        return elements().equals(that.elements());
+    }
+
+    @Override
+    public int hashCode() {
+        return elements().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return CollectionUtils.toString(elements());
+    }
+}
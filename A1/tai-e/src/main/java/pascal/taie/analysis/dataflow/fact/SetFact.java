@@ -89,7 +89,7 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean union(SetFact<E> other) {
-        return set.addAll(other.set);
+        return set.addAll(other.elements());
     }
 
     /**
@@ -107,7 +107,7 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean intersect(SetFact<E> other) {
-        return set.retainAll(other.set);
+        return set.retainAll(other.elements());
     }
 
     /**
@@ -127,6 +127,26 @@ public class SetFact<E> {
         union(other);
     }
 
+    /**
+     * Sets the content of this fact to gen &cup; (src - kill), i.e.,
+     * the result of applying a gen/kill transfer function to src.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean setGenKill(SetFact<E> gen, SetFact<E> src, SetFact<E> kill) {
+        boolean changed = removeIf(e -> !gen.contains(e) &&
+                (!src.contains(e) || kill.contains(e)));
+        for (E e : gen.elements()) {
+            changed |= add(e);
+        }
+        for (E e : src.elements()) {
+            if (!kill.contains(e)) {
+                changed |= add(e);
+            }
+        }
+        return changed;
+    }
+
     /**
      * Creates and returns a copy of this fact.
      */
@@ -153,6 +173,16 @@ public class SetFact<E> {
         return set.size();
     }
 
+    /**
+     * @return a {@link Set} view of the elements in this fact.
+     * Subclasses that do not keep their elements in {@link #set}
+     * must override this method, so that facts of different
+     * representations can still be unioned, intersected and compared.
+     */
+    protected Set<E> elements() {
+        return set;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -161,7 +191,7 @@ public class SetFact<E> {
         if (!(o instanceof SetFact<?> that)) {
             return false;
         }
-        return set.equals(that.set);
+        return set.equals(that.elements());
     }
 
     @Override
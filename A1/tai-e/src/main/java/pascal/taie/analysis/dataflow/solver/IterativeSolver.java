@@ -22,12 +22,16 @@
 
 package pascal.taie.analysis.dataflow.solver;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 
 class IterativeSolver<Node, Fact> extends Solver<Node, Fact> {
 
+    private static final Logger logger = LogManager.getLogger(IterativeSolver.class);
+
     public IterativeSolver(DataflowAnalysis<Node, Fact> analysis) {
         super(analysis);
     }
@@ -40,12 +44,15 @@ class IterativeSolver<Node, Fact> extends Solver<Node, Fact> {
     @Override
     protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         // TODO - finish me
-        var change = true;
+        // each pass sweeps over the nodes in RPO of the reversed CFG,
+        // and only visits the nodes whose successors changed since
+        // their last visits
+        RPOWorkList<Node> pending = new RPOWorkList<>(cfg, false);
+        pending.addAll();
 
-        while (change){
-            change = false;
-            for(Node node:cfg){
-                if (cfg.isExit(node))
+        while (!pending.isEmpty()){
+            for(Node node:pending.getOrder()){
+                if (!pending.remove(node) || cfg.isExit(node))
                     continue;
                 // OUT(B) = Union( IN(S1),IN(S2),... )
                 cfg.getOutEdgesOf(node).forEach((edge)->{
@@ -54,8 +61,10 @@ class IterativeSolver<Node, Fact> extends Solver<Node, Fact> {
                 });
                 // IN(B) = useB U (OUT(B) - defB)
                 if(analysis.transferNode(node, result.getInFact(node), result.getOutFact(node)))
-                    change = true;
+                    cfg.getPredsOf(node).forEach(pending::add);
             }
         }
+        logger.debug("{}: {} node visits, {} visits saved by work list",
+                cfg.getMethod(), pending.getVisits(), pending.getSavedVisits());
     }
 }
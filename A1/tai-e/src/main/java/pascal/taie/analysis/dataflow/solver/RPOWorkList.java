@@ -0,0 +1,184 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.Graph;
+import pascal.taie.util.graph.ReverseGraph;
+import pascal.taie.util.graph.TopoSorter;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Work list of CFG nodes which always pops the pending node that comes
+ * first in reverse postorder (RPO) of the CFG for forward analyses,
+ * or in RPO of the reversed CFG for backward analyses. Visiting nodes
+ * in this order, most nodes see the final facts of their predecessors
+ * (successors for backward analyses) before they are visited, which
+ * saves many visits on loop-heavy methods.
+ * <p>
+ * The pending nodes are kept as a bitmap over their priorities, thus
+ * a node is pending at most once. Adding a node which is already pending
+ * is merged into its pending visit, and is counted as a saved visit.
+ *
+ * @param <Node> type of CFG nodes
+ */
+class RPOWorkList<Node> {
+
+    /**
+     * Nodes sorted in visiting order, i.e., the index of a node
+     * in this list is its priority (smaller index, higher priority).
+     */
+    private final List<Node> order;
+
+    private final Map<Node, Integer> priorities;
+
+    /**
+     * Priorities of the nodes which are currently pending.
+     */
+    private final BitSet inQueue;
+
+    private int visits = 0;
+
+    private int savedVisits = 0;
+
+    RPOWorkList(CFG<Node> cfg, boolean forward) {
+        order = computeOrder(cfg, forward);
+        priorities = Maps.newMap(order.size());
+        for (int i = 0; i < order.size(); ++i) {
+            priorities.put(order.get(i), i);
+        }
+        inQueue = new BitSet(order.size());
+    }
+
+    /**
+     * @return all nodes of the CFG sorted in RPO of the CFG if
+     * {@code forward} is true, otherwise, in RPO of the reversed CFG.
+     */
+    static <Node> List<Node> computeOrder(CFG<Node> cfg, boolean forward) {
+        // TopoSorter starts from the nodes without successors, and
+        // performs depth-first search along the predecessors, thus
+        // the reversed result is the RPO of the reversed input graph.
+        Graph<Node> graph = forward ? new ReverseGraph<>(cfg) : cfg;
+        List<Node> sorted = new TopoSorter<>(graph, true).get();
+        List<Node> order = new ArrayList<>(cfg.getNumberOfNodes());
+        order.addAll(sorted);
+        if (sorted.size() < cfg.getNumberOfNodes()) {
+            // nodes which cannot be reached by the search, e.g., infinite
+            // loops in backward analyses, are visited at last
+            Set<Node> visited = Sets.newSet(sorted.size());
+            visited.addAll(sorted);
+            cfg.forEach(node -> {
+                if (!visited.contains(node)) {
+                    order.add(node);
+                }
+            });
+        }
+        return order;
+    }
+
+    /**
+     * @return all nodes of the CFG in the order of this work list.
+     */
+    List<Node> getOrder() {
+        return order;
+    }
+
+    /**
+     * Adds all nodes of the CFG to this work list.
+     */
+    void addAll() {
+        inQueue.set(0, order.size());
+    }
+
+    /**
+     * Adds a node to this work list.
+     *
+     * @return true if the node was not pending before the call,
+     * otherwise false.
+     */
+    boolean add(Node node) {
+        int priority = priorities.get(node);
+        if (inQueue.get(priority)) {
+            ++savedVisits;
+            return false;
+        }
+        inQueue.set(priority);
+        return true;
+    }
+
+    /**
+     * Removes and returns the pending node of highest priority.
+     */
+    Node poll() {
+        int priority = inQueue.nextSetBit(0);
+        inQueue.clear(priority);
+        ++visits;
+        return order.get(priority);
+    }
+
+    /**
+     * Removes given node from this work list if it is pending.
+     * This is used by solvers which sweep over {@link #getOrder()}
+     * and visit the pending nodes only; a node which is skipped
+     * by the sweep is counted as a saved visit.
+     *
+     * @return true if the node was pending before the call,
+     * otherwise false.
+     */
+    boolean remove(Node node) {
+        int priority = priorities.get(node);
+        if (inQueue.get(priority)) {
+            inQueue.clear(priority);
+            ++visits;
+            return true;
+        } else {
+            ++savedVisits;
+            return false;
+        }
+    }
+
+    boolean isEmpty() {
+        return inQueue.isEmpty();
+    }
+
+    /**
+     * @return the number of nodes visited via this work list.
+     */
+    int getVisits() {
+        return visits;
+    }
+
+    /**
+     * @return the number of node visits saved by this work list.
+     */
+    int getSavedVisits() {
+        return savedVisits;
+    }
+}
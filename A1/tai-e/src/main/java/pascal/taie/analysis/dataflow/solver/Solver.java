@@ -24,8 +24,11 @@ package pascal.taie.analysis.dataflow.solver;
 
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.MapDataflowResult;
 import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.dataflow.fact.StmtDataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.stmt.Stmt;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -68,7 +71,7 @@ public abstract class Solver<Node, Fact> {
      * @return the initialized data-flow result
      */
     private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = new DataflowResult<>();
+        DataflowResult<Node, Fact> result = newResult(cfg);
         if (analysis.isForward()) {
             initializeForward(cfg, result);
         } else {
@@ -77,6 +80,19 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
+    /**
+     * @return a new empty data-flow result for given CFG. For CFGs of
+     * statements, the result is addressed by statement indexes.
+     */
+    @SuppressWarnings("unchecked")
+    private DataflowResult<Node, Fact> newResult(CFG<Node> cfg) {
+        if (cfg.getEntry() instanceof Stmt) {
+            return (DataflowResult<Node, Fact>)
+                    new StmtDataflowResult<Fact>((CFG<Stmt>) cfg);
+        }
+        return new MapDataflowResult<>();
+    }
+
     protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         throw new UnsupportedOperationException();
     }
@@ -89,8 +105,8 @@ public abstract class Solver<Node, Fact> {
         for (Node node: cfg){
             if(cfg.isExit(node))
                 continue;
-            result.setInFact(node, this.analysis.newInitialFact());
-            result.setOutFact(node, this.analysis.newInitialFact());
+            result.setInFact(node, this.analysis.newInitialFact(cfg));
+            result.setOutFact(node, this.analysis.newInitialFact(cfg));
         }
     }
 
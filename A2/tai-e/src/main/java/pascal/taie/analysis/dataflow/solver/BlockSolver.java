@@ -0,0 +1,315 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Solver which iterates over basic blocks instead of single nodes.
+ * <p>
+ * A basic block is a maximal chain of nodes in which every node except
+ * the first has a single predecessor, and every node except the last has
+ * a single successor. The solver keeps facts only at block boundaries,
+ * i.e., the flowing-in fact of the first node and the flowing-out fact
+ * of the last node of each block; a block is transferred by applying the
+ * transfer functions of its nodes in sequence. The facts of the other
+ * nodes are recomputed from the boundary facts of their blocks when they
+ * are queried from the result.
+ */
+class BlockSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    private static final Logger logger = LogManager.getLogger(BlockSolver.class);
+
+    BlockSolver(DataflowAnalysis<Node, Fact> analysis) {
+        super(analysis);
+    }
+
+    @Override
+    public DataflowResult<Node, Fact> solve(CFG<Node> cfg) {
+        boolean forward = analysis.isForward();
+        BlockResult result = new BlockResult(cfg, forward);
+        if (forward) {
+            doSolveForward(cfg, result);
+        } else {
+            doSolveBackward(cfg, result);
+        }
+        return result;
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        BlockResult blockResult = (BlockResult) result;
+        int nBlocks = blockResult.blocks.size();
+        BitSet workList = new BitSet(nBlocks);
+        workList.set(0, nBlocks);
+        int visits = 0;
+        for (int b = workList.nextSetBit(0); b >= 0; b = workList.nextSetBit(0)) {
+            workList.clear(b);
+            List<Node> block = blockResult.blocks.get(b);
+            if (cfg.isEntry(block.get(0))) {
+                continue;
+            }
+            ++visits;
+            Fact in = blockResult.blockIns.get(b);
+            cfg.getPredsOf(block.get(0)).forEach(pred -> analysis.meetInto(
+                    blockResult.blockOuts.get(blockResult.getBlockOf(pred)), in));
+            Fact fact = in;
+            int last = block.size() - 1;
+            for (int i = 0; i < last; ++i) {
+                Fact out = analysis.newInitialFact();
+                analysis.transferNode(block.get(i), fact, out);
+                fact = out;
+            }
+            if (analysis.transferNode(block.get(last), fact,
+                    blockResult.blockOuts.get(b))) {
+                cfg.getSuccsOf(block.get(last)).forEach(succ ->
+                        workList.set(blockResult.getBlockOf(succ)));
+            }
+        }
+        logStatistics(cfg, blockResult, visits);
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        BlockResult blockResult = (BlockResult) result;
+        int nBlocks = blockResult.blocks.size();
+        BitSet workList = new BitSet(nBlocks);
+        workList.set(0, nBlocks);
+        int visits = 0;
+        for (int b = workList.nextSetBit(0); b >= 0; b = workList.nextSetBit(0)) {
+            workList.clear(b);
+            List<Node> block = blockResult.blocks.get(b);
+            int last = block.size() - 1;
+            if (cfg.isExit(block.get(last))) {
+                continue;
+            }
+            ++visits;
+            Fact out = blockResult.blockOuts.get(b);
+            cfg.getSuccsOf(block.get(last)).forEach(succ -> analysis.meetInto(
+                    blockResult.blockIns.get(blockResult.getBlockOf(succ)), out));
+            Fact fact = out;
+            for (int i = last; i > 0; --i) {
+                Fact in = analysis.newInitialFact();
+                analysis.transferNode(block.get(i), in, fact);
+                fact = in;
+            }
+            if (analysis.transferNode(block.get(0),
+                    blockResult.blockIns.get(b), fact)) {
+                cfg.getPredsOf(block.get(0)).forEach(pred ->
+                        workList.set(blockResult.getBlockOf(pred)));
+            }
+        }
+        logStatistics(cfg, blockResult, visits);
+    }
+
+    private void logStatistics(CFG<Node> cfg, BlockResult result, int visits) {
+        logger.debug("{}: {} block visits, {} blocks for {} nodes",
+                cfg.getMethod(), visits, result.blocks.size(),
+                cfg.getNumberOfNodes());
+    }
+
+    /**
+     * Data-flow result which keeps facts only at the boundaries of
+     * basic blocks, and materializes the facts of the nodes in a block
+     * on demand.
+     */
+    private class BlockResult extends DataflowResult<Node, Fact> {
+
+        private final boolean forward;
+
+        /**
+         * Basic blocks, sorted in the order the solver visits them:
+         * reverse postorder of the CFG for forward analyses, or of
+         * the reversed CFG for backward analyses.
+         */
+        private final List<List<Node>> blocks;
+
+        /**
+         * Maps each node to the index of its block (high 32 bits)
+         * and its index in the block (low 32 bits).
+         */
+        private final Map<Node, Long> positions;
+
+        private final List<Fact> blockIns;
+
+        private final List<Fact> blockOuts;
+
+        /**
+         * The most recently materialized block.
+         */
+        private Materialized<Fact> materialized;
+
+        private BlockResult(CFG<Node> cfg, boolean forward) {
+            this.forward = forward;
+            this.positions = Maps.newMap(cfg.getNumberOfNodes());
+            this.blocks = buildBlocks(cfg);
+            blockIns = new ArrayList<>(blocks.size());
+            blockOuts = new ArrayList<>(blocks.size());
+            for (List<Node> block : blocks) {
+                boolean boundary = forward ?
+                        cfg.isEntry(block.get(0)) :
+                        cfg.isExit(block.get(block.size() - 1));
+                blockIns.add(boundary ?
+                        analysis.newBoundaryFact(cfg) : analysis.newInitialFact());
+                blockOuts.add(boundary ?
+                        analysis.newBoundaryFact(cfg) : analysis.newInitialFact());
+            }
+        }
+
+        private List<List<Node>> buildBlocks(CFG<Node> cfg) {
+            List<Node> order = RPOWorkList.computeOrder(cfg, forward);
+            // collect blocks by following chains from their leaders
+            Map<Node, List<Node>> blockOf = Maps.newMap(order.size());
+            List<List<Node>> chains = new ArrayList<>();
+            for (Node node : order) {
+                if (isLeader(cfg, node)) {
+                    chains.add(buildChain(cfg, node, blockOf));
+                }
+            }
+            // remaining nodes form unreachable cycles without leaders
+            for (Node node : order) {
+                if (!blockOf.containsKey(node)) {
+                    chains.add(buildChain(cfg, node, blockOf));
+                }
+            }
+            // sort blocks by the position of their first visited nodes
+            List<List<Node>> blocks = new ArrayList<>(chains.size());
+            for (Node node : order) {
+                List<Node> block = blockOf.get(node);
+                Node head = forward ? block.get(0) : block.get(block.size() - 1);
+                if (node == head) {
+                    int index = blocks.size();
+                    blocks.add(block);
+                    for (int i = 0; i < block.size(); ++i) {
+                        positions.put(block.get(i), ((long) index << 32) | i);
+                    }
+                }
+            }
+            return blocks;
+        }
+
+        private boolean isLeader(CFG<Node> cfg, Node node) {
+            if (cfg.isEntry(node) || cfg.isExit(node) ||
+                    cfg.getInDegreeOf(node) != 1) {
+                return true;
+            }
+            Node pred = cfg.getPredsOf(node).iterator().next();
+            return cfg.isEntry(pred) || cfg.getOutDegreeOf(pred) != 1;
+        }
+
+        private List<Node> buildChain(CFG<Node> cfg, Node leader,
+                                      Map<Node, List<Node>> blockOf) {
+            List<Node> chain = new ArrayList<>();
+            Node node = leader;
+            while (true) {
+                chain.add(node);
+                blockOf.put(node, chain);
+                if (cfg.isEntry(node) || cfg.getOutDegreeOf(node) != 1) {
+                    break;
+                }
+                Node succ = cfg.getSuccsOf(node).iterator().next();
+                if (blockOf.containsKey(succ) || isLeader(cfg, succ)) {
+                    break;
+                }
+                node = succ;
+            }
+            return chain;
+        }
+
+        private int getBlockOf(Node node) {
+            return (int) (positions.get(node) >>> 32);
+        }
+
+        @Override
+        public Fact getInFact(Node node) {
+            Long pos = positions.get(node);
+            return pos == null ? null :
+                    materialize((int) (pos >>> 32)).ins()[pos.intValue()];
+        }
+
+        @Override
+        public void setInFact(Node node, Fact fact) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Fact getOutFact(Node node) {
+            Long pos = positions.get(node);
+            return pos == null ? null :
+                    materialize((int) (pos >>> 32)).outs()[pos.intValue()];
+        }
+
+        @Override
+        public void setOutFact(Node node, Fact fact) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Recomputes the facts of the nodes in given block from the
+         * boundary facts of the block.
+         */
+        @SuppressWarnings("unchecked")
+        private Materialized<Fact> materialize(int b) {
+            Materialized<Fact> m = materialized;
+            if (m != null && m.block() == b) {
+                return m;
+            }
+            List<Node> block = blocks.get(b);
+            int last = block.size() - 1;
+            Fact[] ins = (Fact[]) new Object[block.size()];
+            Fact[] outs = (Fact[]) new Object[block.size()];
+            if (forward) {
+                ins[0] = blockIns.get(b);
+                for (int i = 0; i < last; ++i) {
+                    outs[i] = analysis.newInitialFact();
+                    analysis.transferNode(block.get(i), ins[i], outs[i]);
+                    ins[i + 1] = outs[i];
+                }
+                outs[last] = blockOuts.get(b);
+            } else {
+                outs[last] = blockOuts.get(b);
+                for (int i = last; i > 0; --i) {
+                    ins[i] = analysis.newInitialFact();
+                    analysis.transferNode(block.get(i), ins[i], outs[i]);
+                    outs[i - 1] = ins[i];
+                }
+                ins[0] = blockIns.get(b);
+            }
+            m = new Materialized<>(b, ins, outs);
+            materialized = m;
+            return m;
+        }
+    }
+
+    private record Materialized<Fact>(int block, Fact[] ins, Fact[] outs) {
+    }
+}
@@ -24,7 +24,13 @@ package pascal.taie.analysis.dataflow.solver;
 
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.MapDataflowResult;
+import pascal.taie.analysis.dataflow.fact.StmtDataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.stmt.Stmt;
+
+import javax.annotation.Nullable;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -46,7 +52,29 @@ public abstract class Solver<Node, Fact> {
      */
     public static <Node, Fact> Solver<Node, Fact> makeSolver(
             DataflowAnalysis<Node, Fact> analysis) {
-        return new WorkListSolver<>(analysis);
+        return makeSolver(analysis, null);
+    }
+
+    /**
+     * Static factory method to create a new solver of given kind
+     * for given analysis.
+     *
+     * @param kind kind of the solver, i.e., "worklist", "wto"
+     *             (weak topological ordering) or "block" (basic blocks).
+     *             If it is null, then the default work-list solver
+     *             is created.
+     */
+    public static <Node, Fact> Solver<Node, Fact> makeSolver(
+            DataflowAnalysis<Node, Fact> analysis, @Nullable String kind) {
+        if (kind == null) {
+            return new WorkListSolver<>(analysis);
+        }
+        return switch (kind) {
+            case "worklist" -> new WorkListSolver<>(analysis);
+            case "wto" -> new WTOSolver<>(analysis);
+            case "block" -> new BlockSolver<>(analysis);
+            default -> throw new ConfigException("Unknown solver: " + kind);
+        };
     }
 
     /**
@@ -67,7 +95,7 @@ public abstract class Solver<Node, Fact> {
      * @return the initialized data-flow result
      */
     private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = new DataflowResult<>();
+        DataflowResult<Node, Fact> result = newResult(cfg);
         if (analysis.isForward()) {
             initializeForward(cfg, result);
         } else {
@@ -76,6 +104,19 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
+    /**
+     * @return a new empty data-flow result for given CFG. For CFGs of
+     * statements, the result is addressed by statement indexes.
+     */
+    @SuppressWarnings("unchecked")
+    private DataflowResult<Node, Fact> newResult(CFG<Node> cfg) {
+        if (cfg.getEntry() instanceof Stmt) {
+            return (DataflowResult<Node, Fact>)
+                    new StmtDataflowResult<Fact>((CFG<Stmt>) cfg);
+        }
+        return new MapDataflowResult<>();
+    }
+
     protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         // TODO - finish me
         for(Node node: cfg){
@@ -90,7 +131,15 @@ public abstract class Solver<Node, Fact> {
     }
 
     protected void initializeBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        throw new UnsupportedOperationException();
+        for (Node node : cfg) {
+            if (cfg.isExit(node)) {
+                result.setInFact(node, analysis.newBoundaryFact(cfg));
+                result.setOutFact(node, analysis.newBoundaryFact(cfg));
+                continue;
+            }
+            result.setInFact(node, analysis.newInitialFact());
+            result.setOutFact(node, analysis.newInitialFact());
+        }
     }
 
     /**
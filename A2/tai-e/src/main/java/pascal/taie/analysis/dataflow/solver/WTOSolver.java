@@ -0,0 +1,228 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.Graph;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.ReverseGraph;
+import pascal.taie.util.graph.TopoSorter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Solver which follows the recursive iteration strategy over
+ * weak topological ordering (WTO) of the CFG, proposed in
+ * F. Bourdoncle, "Efficient chaotic iteration strategies with widenings".
+ * <p>
+ * A WTO is a hierarchical ordering of the nodes: each strongly connected
+ * component (i.e., a loop) is ordered as its head followed by the WTO of
+ * its body (the component without the head). The solver visits the nodes
+ * in this order, and stabilizes every loop, from the innermost ones,
+ * before visiting the nodes after the loop, thus it avoids the redundant
+ * sweeps over outer loops caused by unstable inner loops.
+ */
+class WTOSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    WTOSolver(DataflowAnalysis<Node, Fact> analysis) {
+        super(analysis);
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        for (Element<Node> element : computeWTO(cfg, cfg, true)) {
+            stabilize(element, node -> {
+                if (cfg.isEntry(node)) {
+                    return false;
+                }
+                Fact in = result.getInFact(node);
+                cfg.getPredsOf(node).forEach(pred ->
+                        analysis.meetInto(result.getOutFact(pred), in));
+                return analysis.transferNode(node, in, result.getOutFact(node));
+            });
+        }
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        for (Element<Node> element : computeWTO(new ReverseGraph<>(cfg), cfg, false)) {
+            stabilize(element, node -> {
+                if (cfg.isExit(node)) {
+                    return false;
+                }
+                Fact out = result.getOutFact(node);
+                cfg.getSuccsOf(node).forEach(succ ->
+                        analysis.meetInto(result.getInFact(succ), out));
+                return analysis.transferNode(node, result.getInFact(node), out);
+            });
+        }
+    }
+
+    /**
+     * Visits the nodes in given WTO element until the element is stable.
+     */
+    private void stabilize(Element<Node> element, Updater<Node> updater) {
+        if (element instanceof Vertex<Node> vertex) {
+            updater.update(vertex.node());
+        } else {
+            Component<Node> component = (Component<Node>) element;
+            // a component is stable when its head is stable after
+            // all elements in its body have been stabilized
+            boolean first = true;
+            while (updater.update(component.head()) || first) {
+                first = false;
+                component.body().forEach(e -> stabilize(e, updater));
+            }
+        }
+    }
+
+    /**
+     * Computes WTO of given graph.
+     *
+     * @param graph   the graph, i.e., the CFG for forward analysis,
+     *                or the reversed CFG for backward analysis
+     * @param cfg     the CFG
+     * @param forward whether the analysis is forward
+     * @return the top-level elements of the WTO.
+     */
+    private static <Node> List<Element<Node>> computeWTO(
+            Graph<Node> graph, CFG<Node> cfg, boolean forward) {
+        // heads of components are chosen as the nodes which come first
+        // in reverse postorder, i.e., the entries of the loops
+        List<Node> rpo = RPOWorkList.computeOrder(cfg, forward);
+        Map<Node, Integer> priorities = Maps.newMap(rpo.size());
+        for (int i = 0; i < rpo.size(); ++i) {
+            priorities.put(rpo.get(i), i);
+        }
+        return computeWTO(graph, graph.getNodes(), priorities);
+    }
+
+    /**
+     * Computes WTO of the subgraph induced by given nodes.
+     */
+    private static <Node> List<Element<Node>> computeWTO(
+            Graph<Node> graph, Set<Node> nodes, Map<Node, Integer> priorities) {
+        Graph<Node> subgraph = new SubGraph<>(graph, nodes);
+        List<MergedNode<Node>> sccs = new TopoSorter<>(
+                new MergedSCCGraph<>(subgraph)).get();
+        List<Element<Node>> elements = new ArrayList<>(sccs.size());
+        for (MergedNode<Node> scc : sccs) {
+            List<Node> sccNodes = scc.getNodes();
+            Node head = Collections.min(sccNodes,
+                    (n1, n2) -> Integer.compare(priorities.get(n1), priorities.get(n2)));
+            if (sccNodes.size() == 1 && !subgraph.hasEdge(head, head)) {
+                elements.add(new Vertex<>(head));
+            } else {
+                Set<Node> bodyNodes = sccNodes.stream()
+                        .filter(n -> n != head)
+                        .collect(Collectors.toCollection(Sets::newHybridSet));
+                elements.add(new Component<>(head,
+                        computeWTO(graph, bodyNodes, priorities)));
+            }
+        }
+        return elements;
+    }
+
+    @FunctionalInterface
+    private interface Updater<Node> {
+
+        /**
+         * Updates the facts of given node.
+         *
+         * @return true if the flowing-out fact of the node changed.
+         */
+        boolean update(Node node);
+    }
+
+    /**
+     * An element of WTO, which is either a single node (vertex),
+     * or a component.
+     */
+    private interface Element<Node> {
+    }
+
+    private record Vertex<Node>(Node node) implements Element<Node> {
+    }
+
+    private record Component<Node>(Node head, List<Element<Node>> body)
+            implements Element<Node> {
+    }
+
+    /**
+     * View of the subgraph induced by a set of nodes.
+     */
+    private static class SubGraph<Node> implements Graph<Node> {
+
+        private final Graph<Node> graph;
+
+        private final Set<Node> nodes;
+
+        private SubGraph(Graph<Node> graph, Set<Node> nodes) {
+            this.graph = graph;
+            this.nodes = nodes;
+        }
+
+        @Override
+        public boolean hasNode(Node node) {
+            return nodes.contains(node);
+        }
+
+        @Override
+        public boolean hasEdge(Node source, Node target) {
+            return hasNode(source) && hasNode(target)
+                    && graph.hasEdge(source, target);
+        }
+
+        @Override
+        public Set<Node> getPredsOf(Node node) {
+            return filter(graph.getPredsOf(node));
+        }
+
+        @Override
+        public Set<Node> getSuccsOf(Node node) {
+            return filter(graph.getSuccsOf(node));
+        }
+
+        private Set<Node> filter(Collection<Node> c) {
+            return c.stream()
+                    .filter(nodes::contains)
+                    .collect(Collectors.toCollection(Sets::newHybridSet));
+        }
+
+        @Override
+        public Set<Node> getNodes() {
+            return nodes;
+        }
+    }
+}
@@ -22,14 +22,16 @@
 
 package pascal.taie.analysis.dataflow.solver;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 
-import java.util.ArrayList;
-
 class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
 
+    private static final Logger logger = LogManager.getLogger(WorkListSolver.class);
+
     WorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
         super(analysis);
     }
@@ -37,13 +39,10 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
     @Override
     protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         // TODO - finish me
-        ArrayList<Node> worklist = new ArrayList<Node>();
-        for(Node node: cfg){
-            worklist.add(node);
-        }
+        RPOWorkList<Node> worklist = new RPOWorkList<>(cfg, true);
+        worklist.addAll();
         while (!worklist.isEmpty()){
-            Node node = worklist.get(0);
-            worklist.remove(0);
+            Node node = worklist.poll();
             if(cfg.isEntry(node)){
                 continue;
             }
@@ -53,14 +52,32 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
             });
             if(analysis.transferNode(node,result.getInFact(node),result.getOutFact(node)))
                 for(Node succ:cfg.getSuccsOf(node)){
-                    if (!worklist.contains(succ))
-                        worklist.add(succ);
+                    worklist.add(succ);
                 }
         }
+        logStatistics(cfg, worklist);
     }
 
     @Override
     protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        throw new UnsupportedOperationException();
+        RPOWorkList<Node> workList = new RPOWorkList<>(cfg, false);
+        workList.addAll();
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            if (cfg.isExit(node)) {
+                continue;
+            }
+            cfg.getSuccsOf(node).forEach(succ ->
+                    analysis.meetInto(result.getInFact(succ), result.getOutFact(node)));
+            if (analysis.transferNode(node, result.getInFact(node), result.getOutFact(node))) {
+                cfg.getPredsOf(node).forEach(workList::add);
+            }
+        }
+        logStatistics(cfg, workList);
+    }
+
+    private static void logStatistics(CFG<?> cfg, RPOWorkList<?> workList) {
+        logger.debug("{}: {} node visits, {} visits saved by work list",
+                cfg.getMethod(), workList.getVisits(), workList.getSavedVisits());
     }
 }
@@ -32,6 +32,16 @@ public class CPTest {
                 ConstantPropagation.ID, "edge-refine:false");
     }
 
+    void testWTOCP(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false;solver:wto");
+    }
+
+    void testBlockCP(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false;solver:block");
+    }
+
     @Test
     public void testAssign() {
         testCP("Assign");
@@ -66,4 +76,54 @@ public class CPTest {
     public void testInterprocedural() {
         testCP("Interprocedural");
     }
+
+    @Test
+    public void testBranchLoop() {
+        testCP("BranchLoop");
+    }
+
+    @Test
+    public void testNestedLoop() {
+        testCP("NestedLoop");
+    }
+
+    @Test
+    public void testWTOBranchLoop() {
+        testWTOCP("BranchLoop");
+    }
+
+    @Test
+    public void testWTONestedLoop() {
+        testWTOCP("NestedLoop");
+    }
+
+    @Test
+    public void testWTOSimpleBranch() {
+        testWTOCP("SimpleBranch");
+    }
+
+    @Test
+    public void testWTOBranchConstant() {
+        testWTOCP("BranchConstant");
+    }
+
+    @Test
+    public void testBlockAssign() {
+        testBlockCP("Assign");
+    }
+
+    @Test
+    public void testBlockBranchConstant() {
+        testBlockCP("BranchConstant");
+    }
+
+    @Test
+    public void testBlockBranchLoop() {
+        testBlockCP("BranchLoop");
+    }
+
+    @Test
+    public void testBlockNestedLoop() {
+        testBlockCP("NestedLoop");
+    }
 }
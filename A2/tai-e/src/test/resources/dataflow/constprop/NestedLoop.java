@@ -0,0 +1,16 @@
+class NestedLoop {
+
+    int nested(int m, int n) {
+        int x = 1;
+        int y = 2;
+        int i, j;
+        for (i = m; i < n; i = i + y) {
+            for (j = i; j < n; j = j + x) {
+                x = y - x;
+            }
+            y = x + x;
+        }
+        int z = x + y;
+        return z;
+    }
+}
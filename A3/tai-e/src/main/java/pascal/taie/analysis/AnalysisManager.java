@@ -0,0 +1,204 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.Threads;
+import pascal.taie.util.Timer;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+
+/**
+ * Creates and executes analyses based on given analysis configurations.
+ * <p>
+ * Consecutive method analyses in the plan are executed together: each
+ * method runs through all of them in plan order, so an analysis on
+ * a method sees the results of the preceding analyses on that method,
+ * and the methods are analyzed in parallel if any of the analyses sets
+ * its "threads" option to the number of threads (greater than 1).
+ * Without the option, methods are analyzed sequentially.
+ */
+public class AnalysisManager {
+
+    private static final Logger logger = LogManager.getLogger(AnalysisManager.class);
+
+    private List<JClass> classScope;
+
+    private List<JMethod> methodScope;
+
+    /**
+     * Method analyses which are pending to be executed together.
+     */
+    private final List<MethodAnalysis> methodAnalyses = new ArrayList<>();
+
+    public void execute(List<AnalysisConfig> analysisConfigs) {
+        analysisConfigs.forEach(config -> {
+            Analysis analysis = createAnalysis(config);
+            if (analysis instanceof MethodAnalysis) {
+                methodAnalyses.add((MethodAnalysis) analysis);
+            } else {
+                runMethodAnalyses();
+                Timer.runAndCount(() -> runAnalysis(analysis), config.getId());
+            }
+        });
+        runMethodAnalyses();
+    }
+
+    private static Analysis createAnalysis(AnalysisConfig config) {
+        try {
+            Class<?> clazz = Class.forName(config.getAnalysisClass());
+            Constructor<?> ctor = clazz.getConstructor(AnalysisConfig.class);
+            return (Analysis) ctor.newInstance(config);
+        } catch (ClassNotFoundException | NoSuchMethodException |
+                InstantiationException | IllegalAccessException |
+                InvocationTargetException e) {
+            throw new AnalysisException("Failed to initialize " +
+                    config.getAnalysisClass(), e);
+        }
+    }
+
+    private void runAnalysis(Analysis analysis) {
+        if (analysis instanceof ProgramAnalysis) {
+            runProgramAnalysis((ProgramAnalysis) analysis);
+        } else if (analysis instanceof ClassAnalysis) {
+            runClassAnalysis((ClassAnalysis) analysis);
+        } else {
+            logger.warn(analysis.getClass() + " is not an analysis");
+        }
+    }
+
+    private void runProgramAnalysis(ProgramAnalysis analysis) {
+        Object result = analysis.analyze();
+        if (result != null) {
+            World.get().storeResult(analysis.getId(), result);
+        }
+    }
+
+    private void runClassAnalysis(ClassAnalysis analysis) {
+        getClassScope().parallelStream().forEach(c -> {
+            Object result = analysis.analyze(c);
+            if (result != null) {
+                c.storeResult(analysis.getId(), result);
+            }
+        });
+    }
+
+    private List<JClass> getClassScope() {
+        if (classScope == null) {
+            String scope = World.get().getOptions().getScope();
+            classScope = switch (scope) {
+                case "app" -> World.get().getClassHierarchy()
+                        .applicationClasses().toList();
+                case "all" -> World.get().getClassHierarchy()
+                        .allClasses().toList();
+                default -> throw new ConfigException(
+                        "Unexpected scope option: " + scope);
+            };
+            logger.info("{} classes in scope ({}) of class analyses",
+                    classScope.size(), scope);
+        }
+        return classScope;
+    }
+
+    /**
+     * Executes the pending method analyses on all methods in scope.
+     */
+    private void runMethodAnalyses() {
+        if (methodAnalyses.isEmpty()) {
+            return;
+        }
+        List<MethodAnalysis> analyses = List.copyOf(methodAnalyses);
+        methodAnalyses.clear();
+        String ids = analyses.stream()
+                .map(Analysis::getId)
+                .collect(Collectors.joining(", "));
+        Timer.runAndCount(() -> runMethodAnalyses(analyses), ids);
+    }
+
+    private void runMethodAnalyses(List<MethodAnalysis> analyses) {
+        int threads = analyses.stream()
+                .mapToInt(a -> Threads.getThreads(a.getOptions()))
+                .max()
+                .orElse(1);
+        if (threads <= 1) {
+            getMethodScope().forEach(m -> runMethodAnalyses(analyses, m));
+            return;
+        }
+        logger.info("Running method analyses with {} threads", threads);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            getMethodScope().stream()
+                    .map(m -> pool.submit(() -> runMethodAnalyses(analyses, m)))
+                    .toList()
+                    .forEach(ForkJoinTask::join);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void runMethodAnalyses(
+            List<MethodAnalysis> analyses, JMethod method) {
+        IR ir = method.getIR();
+        for (MethodAnalysis analysis : analyses) {
+            Object result = analysis.analyze(ir);
+            if (result != null) {
+                ir.storeResult(analysis.getId(), result);
+            }
+        }
+    }
+
+    private List<JMethod> getMethodScope() {
+        if (methodScope == null) {
+            String scope = World.get().getOptions().getScope();
+            // scope "reachable" is unavailable as this assignment
+            // does not build call graph
+            methodScope = switch (scope) {
+                case "app", "all" -> getClassScope()
+                        .stream()
+                        .map(JClass::getDeclaredMethods)
+                        .flatMap(Collection::stream)
+                        .filter(m -> !m.isAbstract() && !m.isNative())
+                        .toList();
+                default -> throw new ConfigException(
+                        "Unexpected scope option: " + scope);
+            };
+            logger.info("{} methods in scope ({}) of method analyses",
+                    methodScope.size(), scope);
+        }
+        return methodScope;
+    }
+}
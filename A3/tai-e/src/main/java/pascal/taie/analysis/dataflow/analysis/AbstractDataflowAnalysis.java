@@ -22,6 +22,8 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.MethodAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.dataflow.solver.Solver;
@@ -35,17 +37,31 @@ public abstract class AbstractDataflowAnalysis<Node, Fact>
         extends MethodAnalysis
         implements DataflowAnalysis<Node, Fact> {
 
+    private static final Logger logger = LogManager.getLogger(AbstractDataflowAnalysis.class);
+
     private final Solver<Node, Fact> solver;
 
+    /**
+     * Whether to share equal facts in the results computed by the solver.
+     */
+    private final boolean intern;
+
     protected AbstractDataflowAnalysis(AnalysisConfig config) {
         super(config);
         solver = Solver.makeSolver(this);
+        intern = getOptions().getBooleanOrDefault("intern", false);
     }
 
     @Override
     public DataflowResult<Node, Fact> analyze(IR ir) {
         CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
-        return solver.solve(cfg);
+        DataflowResult<Node, Fact> result = solver.solve(cfg);
+        if (intern) {
+            long saved = result.internFacts();
+            logger.debug("{}: interning saved about {} bytes",
+                    ir.getMethod(), saved);
+        }
+        return result;
     }
 
     /**
@@ -48,6 +48,14 @@ public class CPFact extends MapFact<Var, Value> {
         super(map);
     }
 
+    /**
+     * Constructs a CPFact without a backing map, for subclasses which
+     * keep the mappings in their own representation.
+     */
+    CPFact(Void noMap) {
+        super();
+    }
+
     /**
      * @return the value of given variable in this fact,
      * or UNDEF the variable is absent in this fact.
@@ -73,4 +81,33 @@ public class CPFact extends MapFact<Var, Value> {
     public CPFact copy() {
         return new CPFact(this.map);
     }
+
+    /**
+     * Two CPFacts are equal if they map the same variables to the same
+     * values, regardless of how they store the mappings.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof PackedCPFact) {
+            return o.equals(this);
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return map.equals(((CPFact) o).map);
+    }
+
+    /**
+     * Computed from the mappings alone, so that it agrees with
+     * {@link #equals(Object)} across the representations of CPFacts.
+     */
+    @Override
+    public int hashCode() {
+        int[] hash = { 0 };
+        forEach((var, value) -> hash[0] += var.hashCode() ^ value.hashCode());
+        return hash[0];
+    }
 }
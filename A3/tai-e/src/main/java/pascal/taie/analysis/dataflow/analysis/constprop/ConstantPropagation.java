@@ -22,8 +22,12 @@
 
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.ArithmeticExp;
@@ -32,6 +36,7 @@ import pascal.taie.ir.exp.BitwiseExp;
 import pascal.taie.ir.exp.ConditionExp;
 import pascal.taie.ir.exp.Exp;
 import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.LValue;
 import pascal.taie.ir.exp.ShiftExp;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.DefinitionStmt;
@@ -45,8 +50,35 @@ public class ConstantPropagation extends
 
     public static final String ID = "constprop";
 
+    private static final Logger logger = LogManager.getLogger(ConstantPropagation.class);
+
+    /**
+     * Whether to propagate constants sparsely along def-use chains.
+     */
+    private final boolean sparse;
+
+    /**
+     * Whether to use {@link PackedCPFact} as data-flow facts.
+     */
+    private final boolean packedFact;
+
     public ConstantPropagation(AnalysisConfig config) {
         super(config);
+        sparse = getOptions().getBooleanOrDefault("sparse", false);
+        packedFact = getOptions().getBooleanOrDefault("packed-fact", false);
+        if (sparse && getOptions().getBooleanOrDefault("intern", false)) {
+            logger.warn("Option intern is ignored by sparse constant propagation," +
+                    " whose results compute facts on demand");
+        }
+    }
+
+    @Override
+    public DataflowResult<Stmt, CPFact> analyze(IR ir) {
+        if (sparse) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return new SparseCPSolver(this).solve(cfg);
+        }
+        return super.analyze(ir);
     }
 
     @Override
@@ -56,33 +88,68 @@ public class ConstantPropagation extends
 
     @Override
     public CPFact newBoundaryFact(CFG<Stmt> cfg) {
-        // TODO - finish me
-        return null;
+        CPFact fact = newInitialFact(cfg);
+        for (Var param : cfg.getIR().getParams()) {
+            if (canHoldInt(param)) {
+                fact.update(param, Value.getNAC());
+            }
+        }
+        return fact;
     }
 
     @Override
     public CPFact newInitialFact() {
-        // TODO - finish me
-        return null;
+        return packedFact ? new PackedCPFact() : new CPFact();
+    }
+
+    /**
+     * Creates an initial fact for the given CFG. Unlike
+     * {@link #newInitialFact()}, a packed fact is sized for
+     * the variables of the CFG at construction.
+     */
+    CPFact newInitialFact(CFG<Stmt> cfg) {
+        return packedFact ?
+                new PackedCPFact(cfg.getIR().getVars()) : new CPFact();
     }
 
     @Override
     public void meetInto(CPFact fact, CPFact target) {
-        // TODO - finish me
+        if (fact instanceof PackedCPFact && target instanceof PackedCPFact) {
+            ((PackedCPFact) target).meetFrom((PackedCPFact) fact);
+        } else {
+            fact.forEach((var, value) ->
+                    target.update(var, meetValue(value, target.get(var))));
+        }
     }
 
     /**
      * Meets two Values.
      */
     public Value meetValue(Value v1, Value v2) {
-        // TODO - finish me
-        return null;
+        if (v1.isUndef()) {
+            return v2;
+        } else if (v2.isUndef()) {
+            return v1;
+        } else if (v1.equals(v2)) {
+            return v1;
+        } else {
+            return Value.getNAC();
+        }
     }
 
     @Override
     public boolean transferNode(Stmt stmt, CPFact in, CPFact out) {
         // TODO - finish me
-        return false;
+        if (stmt instanceof DefinitionStmt) {
+            LValue lvalue = ((DefinitionStmt<?, ?>) stmt).getLValue();
+            if (lvalue instanceof Var && canHoldInt((Var) lvalue)) {
+                CPFact fact = in.copy();
+                fact.update((Var) lvalue,
+                        evaluate(((DefinitionStmt<?, ?>) stmt).getRValue(), in));
+                return out.copyFrom(fact);
+            }
+        }
+        return out.copyFrom(in);
     }
 
     /**
@@ -112,6 +179,74 @@ public class ConstantPropagation extends
      */
     public static Value evaluate(Exp exp, CPFact in) {
         // TODO - finish me
-        return null;
+        if (exp instanceof IntLiteral) {
+            return Value.makeConstant(((IntLiteral) exp).getValue());
+        } else if (exp instanceof Var) {
+            Var var = (Var) exp;
+            return canHoldInt(var) ? in.get(var) : Value.getNAC();
+        } else if (exp instanceof BinaryExp) {
+            BinaryExp binary = (BinaryExp) exp;
+            Value v1 = evaluate(binary.getOperand1(), in);
+            Value v2 = evaluate(binary.getOperand2(), in);
+            BinaryExp.Op op = binary.getOperator();
+            if (isDivision(op) && v2.isConstant() && v2.getConstant() == 0) {
+                // division by zero never yields a value
+                return Value.getUndef();
+            }
+            if (v1.isConstant() && v2.isConstant()) {
+                return evaluate(op, v1.getConstant(), v2.getConstant());
+            } else if (v1.isNAC() || v2.isNAC()) {
+                return Value.getNAC();
+            } else {
+                return Value.getUndef();
+            }
+        }
+        // other expressions, e.g., invocations and field loads, are not tracked
+        return Value.getNAC();
+    }
+
+    private static boolean isDivision(BinaryExp.Op op) {
+        return op == ArithmeticExp.Op.DIV || op == ArithmeticExp.Op.REM;
+    }
+
+    /**
+     * Evaluates binary operation on two int constants.
+     */
+    private static Value evaluate(BinaryExp.Op op, int i1, int i2) {
+        int result;
+        if (op instanceof ArithmeticExp.Op) {
+            result = switch ((ArithmeticExp.Op) op) {
+                case ADD -> i1 + i2;
+                case SUB -> i1 - i2;
+                case MUL -> i1 * i2;
+                case DIV -> i1 / i2;
+                case REM -> i1 % i2;
+            };
+        } else if (op instanceof BitwiseExp.Op) {
+            result = switch ((BitwiseExp.Op) op) {
+                case OR -> i1 | i2;
+                case AND -> i1 & i2;
+                case XOR -> i1 ^ i2;
+            };
+        } else if (op instanceof ShiftExp.Op) {
+            result = switch ((ShiftExp.Op) op) {
+                case SHL -> i1 << i2;
+                case SHR -> i1 >> i2;
+                case USHR -> i1 >>> i2;
+            };
+        } else if (op instanceof ConditionExp.Op) {
+            boolean cond = switch ((ConditionExp.Op) op) {
+                case EQ -> i1 == i2;
+                case NE -> i1 != i2;
+                case LT -> i1 < i2;
+                case GT -> i1 > i2;
+                case LE -> i1 <= i2;
+                case GE -> i1 >= i2;
+            };
+            result = cond ? 1 : 0;
+        } else {
+            return Value.getNAC();
+        }
+        return Value.makeConstant(result);
     }
 }
@@ -0,0 +1,282 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A {@link CPFact} which packs the lattice value of each variable into
+ * a single {@code long}, stored in an array indexed by {@link Var#getIndex()}.
+ * <p>
+ * The high 32 bits of a slot hold the kind of the value (0 for UNDEF,
+ * so that a fresh array represents an empty fact), and the low 32 bits
+ * hold the constant. {@link Value} objects are created only when
+ * the values are read via {@link #get(Var)} and friends.
+ * <p>
+ * The variables of a fact must belong to the same method. Facts created
+ * from the variables of the method are sized at construction; an empty
+ * fact shares the variables of the first sized fact met or copied into it,
+ * and keeps no slots until then.
+ */
+public class PackedCPFact extends CPFact {
+
+    private static final long UNDEF = 0L;
+
+    private static final long NAC = 1L << 32;
+
+    private static final long CONSTANT = 2L << 32;
+
+    private static final long[] EMPTY_SLOTS = new long[0];
+
+    /**
+     * Variables of the method, or null if no variable has been updated.
+     */
+    private List<Var> vars;
+
+    private long[] slots;
+
+    public PackedCPFact() {
+        this(null, EMPTY_SLOTS);
+    }
+
+    /**
+     * Creates an empty fact for the given variables of a method.
+     */
+    public PackedCPFact(List<Var> vars) {
+        this(vars, new long[vars.size()]);
+    }
+
+    private PackedCPFact(List<Var> vars, long[] slots) {
+        super((Void) null);
+        this.vars = vars;
+        this.slots = slots;
+    }
+
+    private static long encode(Value value) {
+        if (value.isUndef()) {
+            return UNDEF;
+        } else if (value.isNAC()) {
+            return NAC;
+        } else {
+            return CONSTANT | (value.getConstant() & 0xFFFFFFFFL);
+        }
+    }
+
+    private static Value decode(long slot) {
+        if (slot == UNDEF) {
+            return Value.getUndef();
+        } else if (slot == NAC) {
+            return Value.getNAC();
+        } else {
+            return Value.makeConstant((int) slot);
+        }
+    }
+
+    private static long meet(long s1, long s2) {
+        if (s1 == UNDEF || s1 == s2) {
+            return s2;
+        } else if (s2 == UNDEF) {
+            return s1;
+        } else {
+            return NAC;
+        }
+    }
+
+    private void initVars(List<Var> vars) {
+        if (this.vars == null) {
+            this.vars = vars;
+            this.slots = new long[vars.size()];
+        }
+    }
+
+    @Override
+    public Value get(Var key) {
+        int i = key.getIndex();
+        return i < slots.length ? decode(slots[i]) : Value.getUndef();
+    }
+
+    @Override
+    public boolean update(Var key, Value value) {
+        checkNotFrozen();
+        long slot = encode(value);
+        if (slot == UNDEF) {
+            return remove(key) != null;
+        }
+        if (vars == null) {
+            // this fact has never met a sized fact, e.g., it belongs to
+            // a node which is unreachable from the entry
+            initVars(key.getMethod().getIR().getVars());
+        }
+        int i = key.getIndex();
+        long old = slots[i];
+        slots[i] = slot;
+        return old != slot;
+    }
+
+    @Override
+    public Value remove(Var key) {
+        checkNotFrozen();
+        int i = key.getIndex();
+        if (i >= slots.length || slots[i] == UNDEF) {
+            return null;
+        }
+        long old = slots[i];
+        slots[i] = UNDEF;
+        return decode(old);
+    }
+
+    /**
+     * Meets given fact into this fact without allocating any {@link Value}.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean meetFrom(PackedCPFact fact) {
+        checkNotFrozen();
+        if (fact.vars == null) {
+            return false;
+        }
+        initVars(fact.vars);
+        boolean changed = false;
+        long[] other = fact.slots;
+        for (int i = 0; i < other.length; ++i) {
+            long slot = meet(slots[i], other[i]);
+            if (slot != slots[i]) {
+                slots[i] = slot;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean copyFrom(MapFact<Var, Value> fact) {
+        checkNotFrozen();
+        if (fact instanceof PackedCPFact) {
+            PackedCPFact packed = (PackedCPFact) fact;
+            if (packed.vars == null) {
+                return false;
+            }
+            initVars(packed.vars);
+            boolean changed = false;
+            long[] other = packed.slots;
+            for (int i = 0; i < other.length; ++i) {
+                if (other[i] != UNDEF && other[i] != slots[i]) {
+                    slots[i] = other[i];
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+        boolean[] changed = { false };
+        fact.forEach((var, value) -> changed[0] |= update(var, value));
+        return changed[0];
+    }
+
+    @Override
+    public PackedCPFact copy() {
+        return new PackedCPFact(vars, slots.clone());
+    }
+
+    @Override
+    public void clear() {
+        checkNotFrozen();
+        Arrays.fill(slots, UNDEF);
+    }
+
+    /**
+     * @return a snapshot of the variables whose values are not UNDEF.
+     */
+    @Override
+    public Set<Var> keySet() {
+        Set<Var> keys = Sets.newHybridSet();
+        forEach((var, value) -> keys.add(var));
+        return keys;
+    }
+
+    @Override
+    public Stream<Map.Entry<Var, Value>> entries() {
+        return IntStream.range(0, slots.length)
+                .filter(i -> slots[i] != UNDEF)
+                .mapToObj(i -> Map.entry(vars.get(i), decode(slots[i])));
+    }
+
+    @Override
+    public void forEach(BiConsumer<Var, Value> action) {
+        for (int i = 0; i < slots.length; ++i) {
+            if (slots[i] != UNDEF) {
+                action.accept(vars.get(i), decode(slots[i]));
+            }
+        }
+    }
+
+    /**
+     * Estimates the size of this fact as the fact and its slots,
+     * as the variables are shared by the facts of the method.
+     */
+    @Override
+    public long estimateSize() {
+        return 24 + 16 + 8L * slots.length;
+    }
+
+    /**
+     * A packed fact also equals a plain {@link CPFact} with the same
+     * mappings, so that the two kinds of facts can be mixed.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof PackedCPFact) {
+            long[] other = ((PackedCPFact) o).slots;
+            if (slots.length == other.length) {
+                return Arrays.equals(slots, other);
+            }
+            // one of the facts has not been assigned slots yet
+            long[] longer = slots.length > other.length ? slots : other;
+            return Arrays.stream(longer).allMatch(slot -> slot == UNDEF);
+        }
+        if (!(o instanceof CPFact)) {
+            return false;
+        }
+        CPFact that = (CPFact) o;
+        int[] size = { 0 };
+        boolean[] equal = { true };
+        that.forEach((var, value) -> {
+            ++size[0];
+            equal[0] &= get(var).equals(value);
+        });
+        return equal[0] && size[0] == Arrays.stream(slots)
+                .filter(slot -> slot != UNDEF)
+                .count();
+    }
+}
@@ -0,0 +1,422 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Exp;
+import pascal.taie.ir.exp.LValue;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Sparse constant propagation over def-use chains.
+ * <p>
+ * Instead of copying a {@link CPFact} into every statement, this solver
+ * keeps one {@link Value} per definition of an int-holding variable and
+ * propagates changes only along def-use chains. Like sparse conditional
+ * constant propagation, it also tracks executable CFG edges, so that
+ * branches of {@link If} and {@link SwitchStmt} whose conditions are
+ * constant are never explored.
+ * <p>
+ * Def-use chains are built once per IR from reaching definitions, and
+ * the result is exposed as a {@link DataflowResult} view which computes
+ * the facts of a statement on demand. Values are met and expressions are
+ * evaluated by {@link ConstantPropagation#meetValue(Value, Value)} and
+ * {@link ConstantPropagation#evaluate(Exp, CPFact)}, so the sparse and
+ * the dense solvers agree on the lattice.
+ */
+class SparseCPSolver {
+
+    private final ConstantPropagation cp;
+
+    private CFG<Stmt> cfg;
+
+    /**
+     * The variable defined by each definition. Real definitions come first,
+     * followed by one pseudo-definition for each int-holding parameter.
+     */
+    private List<Var> defVars;
+
+    /**
+     * Maps each defining statement (by index) to its definition, or -1.
+     */
+    private int[] defOf;
+
+    /**
+     * Definitions of each variable (by index).
+     */
+    private BitSet[] varDefs;
+
+    /**
+     * Reaching definitions at the entry of each statement (by index).
+     */
+    private BitSet[] reachingDefs;
+
+    /**
+     * Statements that use each definition.
+     */
+    private List<List<Stmt>> defUses;
+
+    private Value[] values;
+
+    private BitSet executable;
+
+    private Set<Edge<Stmt>> executableEdges;
+
+    private Queue<Edge<Stmt>> flowWorkList;
+
+    private Queue<Stmt> useWorkList;
+
+    SparseCPSolver(ConstantPropagation cp) {
+        this.cp = cp;
+    }
+
+    DataflowResult<Stmt, CPFact> solve(CFG<Stmt> cfg) {
+        this.cfg = cfg;
+        buildDefUse();
+        propagate();
+        return new Result(cp, cfg, defVars, defOf, reachingDefs, values);
+    }
+
+    private void buildDefUse() {
+        IR ir = cfg.getIR();
+        int nStmts = ir.getStmts().size() + 2; // plus entry and exit
+        defVars = new ArrayList<>();
+        defOf = new int[nStmts];
+        varDefs = new BitSet[ir.getVars().size()];
+        for (Stmt stmt : ir) {
+            Var def = getDefinedVar(stmt);
+            if (def != null) {
+                defOf[stmt.getIndex()] = newDef(def);
+            } else {
+                defOf[stmt.getIndex()] = -1;
+            }
+        }
+        defOf[cfg.getEntry().getIndex()] = -1;
+        defOf[cfg.getExit().getIndex()] = -1;
+        BitSet paramDefs = new BitSet();
+        for (Var param : ir.getParams()) {
+            if (ConstantPropagation.canHoldInt(param)) {
+                paramDefs.set(newDef(param));
+            }
+        }
+        computeReachingDefs(nStmts, paramDefs);
+        // connect each definition to the statements which may use it
+        defUses = new ArrayList<>(defVars.size());
+        for (int i = 0; i < defVars.size(); ++i) {
+            defUses.add(new ArrayList<>());
+        }
+        for (Stmt stmt : ir) {
+            BitSet in = reachingDefs[stmt.getIndex()];
+            for (Var use : getIntUses(stmt)) {
+                BitSet defs = varDefs[use.getIndex()];
+                if (defs == null) {
+                    continue;
+                }
+                for (int d = defs.nextSetBit(0); d >= 0;
+                     d = defs.nextSetBit(d + 1)) {
+                    if (in.get(d)) {
+                        defUses.get(d).add(stmt);
+                    }
+                }
+            }
+        }
+        values = new Value[defVars.size()];
+        for (int d = 0; d < values.length; ++d) {
+            values[d] = paramDefs.get(d) ? Value.getNAC() : Value.getUndef();
+        }
+    }
+
+    private int newDef(Var var) {
+        int def = defVars.size();
+        defVars.add(var);
+        BitSet defs = varDefs[var.getIndex()];
+        if (defs == null) {
+            defs = varDefs[var.getIndex()] = new BitSet();
+        }
+        defs.set(def);
+        return def;
+    }
+
+    /**
+     * Computes reaching definitions of int-holding variables by
+     * a bit-vector work-list algorithm.
+     */
+    private void computeReachingDefs(int nStmts, BitSet paramDefs) {
+        reachingDefs = new BitSet[nStmts];
+        BitSet[] outDefs = new BitSet[nStmts];
+        for (Stmt node : cfg.getNodes()) {
+            reachingDefs[node.getIndex()] = new BitSet();
+            outDefs[node.getIndex()] = new BitSet();
+        }
+        outDefs[cfg.getEntry().getIndex()].or(paramDefs);
+        Queue<Stmt> workList = new ArrayDeque<>();
+        BitSet inQueue = new BitSet(nStmts);
+        for (Stmt node : cfg.getNodes()) {
+            if (!cfg.isEntry(node)) {
+                workList.add(node);
+                inQueue.set(node.getIndex());
+            }
+        }
+        while (!workList.isEmpty()) {
+            Stmt node = workList.poll();
+            inQueue.clear(node.getIndex());
+            BitSet in = reachingDefs[node.getIndex()];
+            for (Stmt pred : cfg.getPredsOf(node)) {
+                in.or(outDefs[pred.getIndex()]);
+            }
+            BitSet out = (BitSet) in.clone();
+            int def = defOf[node.getIndex()];
+            if (def >= 0) {
+                out.andNot(varDefs[defVars.get(def).getIndex()]);
+                out.set(def);
+            }
+            if (!out.equals(outDefs[node.getIndex()])) {
+                outDefs[node.getIndex()] = out;
+                for (Stmt succ : cfg.getSuccsOf(node)) {
+                    if (!inQueue.get(succ.getIndex())) {
+                        workList.add(succ);
+                        inQueue.set(succ.getIndex());
+                    }
+                }
+            }
+        }
+    }
+
+    private void propagate() {
+        executable = new BitSet();
+        executableEdges = Sets.newSet();
+        flowWorkList = new ArrayDeque<>();
+        useWorkList = new ArrayDeque<>();
+        Stmt entry = cfg.getEntry();
+        executable.set(entry.getIndex());
+        flowWorkList.addAll(cfg.getOutEdgesOf(entry));
+        while (!flowWorkList.isEmpty() || !useWorkList.isEmpty()) {
+            while (!flowWorkList.isEmpty()) {
+                Edge<Stmt> edge = flowWorkList.poll();
+                if (executableEdges.add(edge)) {
+                    Stmt target = edge.getTarget();
+                    if (!executable.get(target.getIndex())) {
+                        executable.set(target.getIndex());
+                        visit(target);
+                    }
+                }
+            }
+            while (!useWorkList.isEmpty()) {
+                Stmt stmt = useWorkList.poll();
+                if (executable.get(stmt.getIndex())) {
+                    visit(stmt);
+                }
+            }
+        }
+    }
+
+    private void visit(Stmt stmt) {
+        if (stmt instanceof If) {
+            Value cond = ConstantPropagation.evaluate(
+                    ((If) stmt).getCondition(), getUseFact(stmt));
+            for (Edge<Stmt> edge : cfg.getOutEdgesOf(stmt)) {
+                if (cond.isNAC() ||
+                        (cond.isConstant() && isFeasible(edge, cond.getConstant()))) {
+                    flowWorkList.add(edge);
+                }
+            }
+        } else if (stmt instanceof SwitchStmt) {
+            SwitchStmt switchStmt = (SwitchStmt) stmt;
+            Value cond = getUseFact(stmt).get(switchStmt.getVar());
+            for (Edge<Stmt> edge : cfg.getOutEdgesOf(stmt)) {
+                if (cond.isNAC() ||
+                        (cond.isConstant() && isFeasible(edge, switchStmt,
+                                cond.getConstant()))) {
+                    flowWorkList.add(edge);
+                }
+            }
+        } else {
+            int def = defOf[stmt.getIndex()];
+            if (def >= 0) {
+                RValue rvalue = ((DefinitionStmt<?, ?>) stmt).getRValue();
+                Value oldVal = values[def];
+                Value newVal = cp.meetValue(oldVal,
+                        ConstantPropagation.evaluate(rvalue, getUseFact(stmt)));
+                if (!newVal.equals(oldVal)) {
+                    values[def] = newVal;
+                    useWorkList.addAll(defUses.get(def));
+                }
+            }
+            flowWorkList.addAll(cfg.getOutEdgesOf(stmt));
+        }
+    }
+
+    private static boolean isFeasible(Edge<Stmt> edge, int cond) {
+        return switch (edge.getKind()) {
+            case IF_TRUE -> cond != 0;
+            case IF_FALSE -> cond == 0;
+            default -> false;
+        };
+    }
+
+    private static boolean isFeasible(
+            Edge<Stmt> edge, SwitchStmt switchStmt, int cond) {
+        if (edge.isSwitchCase()) {
+            return edge.getCaseValue() == cond;
+        } else if (edge.getKind() == Edge.Kind.SWITCH_DEFAULT) {
+            return !switchStmt.getCaseValues().contains(cond);
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * @return a fact holding the values of the int-holding variables
+     * used by the given statement.
+     */
+    private CPFact getUseFact(Stmt stmt) {
+        CPFact fact = new CPFact();
+        BitSet in = reachingDefs[stmt.getIndex()];
+        for (Var use : getIntUses(stmt)) {
+            BitSet defs = varDefs[use.getIndex()];
+            if (defs == null) {
+                continue;
+            }
+            for (int d = defs.nextSetBit(0); d >= 0;
+                 d = defs.nextSetBit(d + 1)) {
+                if (in.get(d)) {
+                    fact.update(use, cp.meetValue(fact.get(use), values[d]));
+                }
+            }
+        }
+        return fact;
+    }
+
+    private static List<Var> getIntUses(Stmt stmt) {
+        List<Var> uses = new ArrayList<>();
+        for (RValue use : stmt.getUses()) {
+            if (use instanceof Var &&
+                    ConstantPropagation.canHoldInt((Var) use)) {
+                uses.add((Var) use);
+            }
+        }
+        return uses;
+    }
+
+    private static Var getDefinedVar(Stmt stmt) {
+        if (stmt instanceof DefinitionStmt) {
+            LValue lvalue = ((DefinitionStmt<?, ?>) stmt).getLValue();
+            if (lvalue instanceof Var &&
+                    ConstantPropagation.canHoldInt((Var) lvalue)) {
+                return (Var) lvalue;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A {@link DataflowResult} view over the results of sparse constant
+     * propagation. The IN fact of a statement is the meet of the values of
+     * the definitions reaching it, and its OUT fact additionally holds
+     * the value of its own definition.
+     */
+    private static class Result extends DataflowResult<Stmt, CPFact> {
+
+        private final ConstantPropagation cp;
+
+        private final CFG<Stmt> cfg;
+
+        private final List<Var> defVars;
+
+        private final int[] defOf;
+
+        private final BitSet[] reachingDefs;
+
+        private final Value[] values;
+
+        private Result(ConstantPropagation cp, CFG<Stmt> cfg, List<Var> defVars, int[] defOf,
+                       BitSet[] reachingDefs, Value[] values) {
+            this.cp = cp;
+            this.cfg = cfg;
+            this.defVars = defVars;
+            this.defOf = defOf;
+            this.reachingDefs = reachingDefs;
+            this.values = values;
+        }
+
+        @Override
+        public CPFact getInFact(Stmt stmt) {
+            if (!cfg.hasNode(stmt)) {
+                return null;
+            }
+            CPFact fact = cp.newInitialFact(cfg);
+            BitSet in = reachingDefs[stmt.getIndex()];
+            for (int d = in.nextSetBit(0); d >= 0; d = in.nextSetBit(d + 1)) {
+                Var var = defVars.get(d);
+                fact.update(var, cp.meetValue(fact.get(var), values[d]));
+            }
+            return fact;
+        }
+
+        @Override
+        public void setInFact(Stmt stmt, CPFact fact) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CPFact getOutFact(Stmt stmt) {
+            CPFact fact = getInFact(stmt);
+            if (fact != null) {
+                int def = defOf[stmt.getIndex()];
+                if (def >= 0) {
+                    fact.update(defVars.get(def), values[def]);
+                }
+            }
+            return fact;
+        }
+
+        @Override
+        public void setOutFact(Stmt stmt, CPFact fact) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Facts of this view are computed on demand and never stored,
+         * so there is nothing to intern.
+         */
+        @Override
+        public long internFacts() {
+            return 0;
+        }
+    }
+}
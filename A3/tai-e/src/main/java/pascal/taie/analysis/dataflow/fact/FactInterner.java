@@ -0,0 +1,65 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Canonicalizes equal {@link InternableFact}s for
+ * {@link DataflowResult#internFacts()}.
+ *
+ * @param <Fact> type of data-flow facts
+ */
+class FactInterner<Fact> {
+
+    private final Map<Fact, Fact> canonicalFacts = new HashMap<>();
+
+    private long savedBytes;
+
+    /**
+     * @return the canonical instance equal to given fact. The first
+     * instance met of each internable fact becomes canonical and is frozen.
+     * Facts which are null or not internable are returned as they are.
+     */
+    Fact intern(Fact fact) {
+        if (fact instanceof InternableFact internable) {
+            Fact canonical = canonicalFacts.putIfAbsent(fact, fact);
+            if (canonical == null) {
+                internable.freeze();
+            } else if (canonical != fact) {
+                savedBytes += internable.estimateSize();
+                return canonical;
+            }
+        }
+        return fact;
+    }
+
+    /**
+     * @return estimated number of bytes saved by the facts
+     * which have been replaced by canonical instances.
+     */
+    long getSavedBytes() {
+        return savedBytes;
+    }
+}
@@ -24,6 +24,7 @@ package pascal.taie.analysis.dataflow.fact;
 
 import pascal.taie.util.collection.Maps;
 
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Map;
 import java.util.Objects;
@@ -38,13 +39,18 @@ import java.util.stream.Stream;
  * @param <K> type of keys
  * @param <V> type of values
  */
-public class MapFact<K, V> {
+public class MapFact<K, V> implements InternableFact {
 
     /**
      * The map holding the mappings of this MapFact.
      */
     protected final Map<K, V> map;
 
+    /**
+     * Whether this fact has been frozen.
+     */
+    private boolean frozen;
+
     /**
      * Constructs a new MapFact with the same mappings as specified Map.
      *
@@ -54,6 +60,15 @@ public class MapFact<K, V> {
         this.map = Maps.newHybridMap(map);
     }
 
+    /**
+     * Constructs a MapFact without a backing map, for subclasses which
+     * keep the mappings in their own representation and thus override
+     * every method that accesses {@link #map}.
+     */
+    protected MapFact() {
+        this.map = null;
+    }
+
     /**
      * @return the value to which the specified key is mapped,
      * or null if this map contains no mapping for the key.
@@ -68,6 +83,7 @@ public class MapFact<K, V> {
      * @return if the update changes this fact.
      */
     public boolean update(K key, V value) {
+        checkNotFrozen();
         return !Objects.equals(map.put(key, value), value);
     }
 
@@ -78,6 +94,7 @@ public class MapFact<K, V> {
      * or null if there was no mapping for key.
      */
     public V remove(K key) {
+        checkNotFrozen();
         return map.remove(key);
     }
 
@@ -87,11 +104,11 @@ public class MapFact<K, V> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean copyFrom(MapFact<K, V> fact) {
-        boolean changed = false;
-        for (Map.Entry<K, V> entry : fact.map.entrySet()) {
-            changed |= update(entry.getKey(), entry.getValue());
-        }
-        return changed;
+        // go through forEach() rather than fact.map, so that facts
+        // which keep their mappings elsewhere are copied as well
+        boolean[] changed = { false };
+        fact.forEach((key, value) -> changed[0] |= update(key, value));
+        return changed[0];
     }
 
     /**
@@ -105,6 +122,7 @@ public class MapFact<K, V> {
      * Clears all content in this fact.
      */
     public void clear() {
+        checkNotFrozen();
         map.clear();
     }
 
@@ -112,7 +130,7 @@ public class MapFact<K, V> {
      * @return a {@link Set} view of the keys contained in this fact.
      */
     public Set<K> keySet() {
-        return map.keySet();
+        return frozen ? Collections.unmodifiableSet(map.keySet()) : map.keySet();
     }
 
     /**
@@ -132,6 +150,33 @@ public class MapFact<K, V> {
         map.forEach(action);
     }
 
+    @Override
+    public void freeze() {
+        frozen = true;
+    }
+
+    /**
+     * Subclasses which modify their own representation call this method
+     * before each modification.
+     *
+     * @throws UnsupportedOperationException if this fact has been frozen.
+     */
+    protected void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Cannot modify a frozen fact");
+        }
+    }
+
+    /**
+     * Estimates the size of this fact as a hash map, i.e.,
+     * the fact, the map and an entry node with a table slot
+     * for each mapping.
+     */
+    @Override
+    public long estimateSize() {
+        return 16 + 48 + 40L * map.size();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -154,8 +199,7 @@ public class MapFact<K, V> {
         // Sort key-value pairs by key's string representation, so that the
         // fact representation is stable across executions. This is useful
         // for comparing expected results and the ones given by the analysis.
-        return "{" + map.entrySet()
-                .stream()
+        return "{" + entries()
                 .sorted(Comparator.comparing(e -> e.getKey().toString()))
                 .map(e -> e.getKey() + "=" + e.getValue())
                 .collect(Collectors.joining(", ")) + "}";
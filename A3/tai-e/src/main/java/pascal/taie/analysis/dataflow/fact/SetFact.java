@@ -36,10 +36,15 @@ import java.util.stream.Stream;
  *
  * @param <E> type of elements
  */
-public class SetFact<E> {
+public class SetFact<E> implements InternableFact {
 
     protected final Set<E> set;
 
+    /**
+     * Whether this fact has been frozen.
+     */
+    private boolean frozen;
+
     public SetFact(Collection<E> c) {
         set = Sets.newHybridSet(c);
     }
@@ -61,6 +66,7 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean add(E e) {
+        checkNotFrozen();
         return set.add(e);
     }
 
@@ -70,6 +76,7 @@ public class SetFact<E> {
      * @return true if an element was removed as a result of the call, otherwise false.
      */
     public boolean remove(E e) {
+        checkNotFrozen();
         return set.remove(e);
     }
 
@@ -80,6 +87,7 @@ public class SetFact<E> {
      * otherwise false.
      */
     public boolean removeIf(Predicate<E> filter) {
+        checkNotFrozen();
         return set.removeIf(filter);
     }
 
@@ -89,6 +97,7 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean union(SetFact<E> other) {
+        checkNotFrozen();
         return set.addAll(other.set);
     }
 
@@ -107,6 +116,7 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean intersect(SetFact<E> other) {
+        checkNotFrozen();
         return set.retainAll(other.set);
     }
 
@@ -138,6 +148,7 @@ public class SetFact<E> {
      * Clears all content in this fact.
      */
     public void clear() {
+        checkNotFrozen();
         set.clear();
     }
 
@@ -153,6 +164,27 @@ public class SetFact<E> {
         return set.size();
     }
 
+    @Override
+    public void freeze() {
+        frozen = true;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Cannot modify a frozen fact");
+        }
+    }
+
+    /**
+     * Estimates the size of this fact as a hash set, i.e.,
+     * the fact, the set and an entry node with a table slot
+     * for each element.
+     */
+    @Override
+    public long estimateSize() {
+        return 16 + 48 + 40L * set.size();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
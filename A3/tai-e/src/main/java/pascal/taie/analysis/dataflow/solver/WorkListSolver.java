@@ -25,6 +25,11 @@ package pascal.taie.analysis.dataflow.solver;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
 
 class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
 
@@ -35,10 +40,66 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
     @Override
     protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         // TODO - finish me
+        WorkList<Node> workList = new WorkList<>(cfg);
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            if (cfg.isEntry(node)) {
+                continue;
+            }
+            Fact in = result.getInFact(node);
+            cfg.getPredsOf(node).forEach(pred ->
+                    analysis.meetInto(result.getOutFact(pred), in));
+            if (analysis.transferNode(node, in, result.getOutFact(node))) {
+                cfg.getSuccsOf(node).forEach(workList::add);
+            }
+        }
     }
 
     @Override
     protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         // TODO - finish me
+        WorkList<Node> workList = new WorkList<>(cfg);
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            if (cfg.isExit(node)) {
+                continue;
+            }
+            Fact out = result.getOutFact(node);
+            cfg.getSuccsOf(node).forEach(succ ->
+                    analysis.meetInto(result.getInFact(succ), out));
+            if (analysis.transferNode(node, result.getInFact(node), out)) {
+                cfg.getPredsOf(node).forEach(workList::add);
+            }
+        }
+    }
+
+    /**
+     * A FIFO work list which holds each node at most once.
+     */
+    private static class WorkList<Node> {
+
+        private final Queue<Node> queue = new ArrayDeque<>();
+
+        private final Set<Node> inQueue = Sets.newSet();
+
+        private WorkList(CFG<Node> cfg) {
+            cfg.forEach(this::add);
+        }
+
+        private void add(Node node) {
+            if (inQueue.add(node)) {
+                queue.add(node);
+            }
+        }
+
+        private Node poll() {
+            Node node = queue.poll();
+            inQueue.remove(node);
+            return node;
+        }
+
+        private boolean isEmpty() {
+            return queue.isEmpty();
+        }
     }
 }
@@ -0,0 +1,84 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.util;
+
+import pascal.taie.util.collection.Maps;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Base class of result holders. The results are kept in a synchronized
+ * map, as method analyses may run in parallel and store their results
+ * into the holders (e.g., IRs) from different threads.
+ */
+public abstract class AbstractResultHolder implements ResultHolder {
+
+    private final Map<String, Object> results =
+            Collections.synchronizedMap(Maps.newHybridMap());
+
+    @Override
+    public <R> void storeResult(String key, R result) {
+        results.put(key, result);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> R getResult(String key) {
+        return (R) results.get(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> R getResult(String key, R defaultResult) {
+        return (R) results.getOrDefault(key, defaultResult);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> R getResult(String key, Supplier<R> supplier) {
+        return (R) results.computeIfAbsent(key, unused -> supplier.get());
+    }
+
+    /**
+     * @return a snapshot of the keys of the results in this holder.
+     */
+    @Override
+    public Collection<String> getKeys() {
+        synchronized (results) {
+            return List.copyOf(results.keySet());
+        }
+    }
+
+    @Override
+    public void clearResult(String key) {
+        results.remove(key);
+    }
+
+    @Override
+    public void clearAll() {
+        results.clear();
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util;
+
+import pascal.taie.config.AnalysisOptions;
+
+/**
+ * Static utility methods for running analyses with multiple threads.
+ */
+public final class Threads {
+
+    private Threads() {
+    }
+
+    /**
+     * Every analysis which runs in parallel reads its number of threads
+     * from its "threads" option. The analysis runs sequentially if
+     * the option is absent or not greater than 1.
+     *
+     * @return the number of threads given by the "threads" option,
+     * or 1 if the option is absent.
+     */
+    public static int getThreads(AnalysisOptions options) {
+        Object threads = options.get("threads");
+        return threads != null ? (Integer) threads : 1;
+    }
+}
@@ -58,4 +58,27 @@ public class DeadCodeTest {
     public void testLoops() {
         testDCD("Loops");
     }
+
+    /**
+     * Runs cfg, constprop, livevar and deadcode together per method
+     * on a dedicated pool of two threads.
+     */
+    @Test
+    public void testLoopsWithThreads() {
+        Tests.test("Loops", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false",
+                "-a", "constprop=edge-refine:false;threads:2");
+    }
+
+    /**
+     * Runs deadcode on the interned results of constprop and livevar.
+     */
+    @Test
+    public void testLoopsWithInterning() {
+        Tests.test("Loops", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false;intern:true",
+                "-a", "constprop=edge-refine:false;intern:true");
+    }
 }
@@ -0,0 +1,65 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import org.junit.Test;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class PackedCPFactTest {
+
+    private final Var a = new Var(null, "a", PrimitiveType.INT, 0);
+
+    private final Var b = new Var(null, "b", PrimitiveType.INT, 1);
+
+    private final List<Var> vars = List.of(a, b);
+
+    @Test
+    public void testCopyFromPackedFact() {
+        PackedCPFact packed = new PackedCPFact(vars);
+        packed.update(a, Value.makeConstant(1));
+        packed.update(b, Value.getNAC());
+        CPFact plain = new CPFact();
+        assertEquals(true, plain.copyFrom(packed));
+        assertEquals(Value.makeConstant(1), plain.get(a));
+        assertEquals(Value.getNAC(), plain.get(b));
+    }
+
+    @Test
+    public void testEqualsPlainFact() {
+        PackedCPFact packed = new PackedCPFact(vars);
+        packed.update(a, Value.makeConstant(1));
+        CPFact plain = new CPFact();
+        plain.update(a, Value.makeConstant(1));
+        assertEquals(plain, packed);
+        assertEquals(packed, plain);
+        assertEquals(plain.hashCode(), packed.hashCode());
+        plain.update(b, Value.makeConstant(2));
+        assertNotEquals(plain, packed);
+        assertNotEquals(packed, plain);
+    }
+}
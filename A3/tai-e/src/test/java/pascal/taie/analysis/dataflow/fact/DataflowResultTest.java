@@ -0,0 +1,65 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.fact;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class DataflowResultTest {
+
+    @Test
+    public void testInternFacts() {
+        DataflowResult<String, SetFact<String>> result = new MapDataflowResult<>();
+        result.setInFact("n1", new SetFact<>(List.of("a")));
+        result.setOutFact("n1", new SetFact<>(List.of("a", "b")));
+        result.setInFact("n2", new SetFact<>(List.of("a", "b")));
+        result.setOutFact("n2", new SetFact<>(List.of("a", "b")));
+        result.setInFact("n3", new SetFact<>(List.of("a")));
+        result.setOutFact("n3", new SetFact<>(List.of("c")));
+        // {a} of n3 and {a, b} of n2 (twice) are duplicates
+        long saved = new SetFact<>(List.of("a")).estimateSize() +
+                2 * new SetFact<>(List.of("a", "b")).estimateSize();
+        assertEquals(saved, result.internFacts());
+        assertSame(result.getInFact("n1"), result.getInFact("n3"));
+        assertSame(result.getOutFact("n1"), result.getInFact("n2"));
+        assertSame(result.getOutFact("n1"), result.getOutFact("n2"));
+        assertEquals(new SetFact<>(List.of("c")), result.getOutFact("n3"));
+        // interning again finds nothing to replace
+        assertEquals(0, result.internFacts());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testInternedFactsAreFrozen() {
+        DataflowResult<String, SetFact<String>> result = new MapDataflowResult<>();
+        result.setInFact("n1", new SetFact<>(List.of("a")));
+        result.setInFact("n2", new SetFact<>(List.of("a")));
+        result.internFacts();
+        // n1 and n2 share the same fact, which must not be modified
+        result.getInFact("n2").add("b");
+    }
+}
@@ -0,0 +1,10 @@
+class Assign {
+
+    void assign() {
+        int x = 1, y;
+        x = 2;
+        x = 3;
+        x = 4;
+        y = x;
+    }
+}
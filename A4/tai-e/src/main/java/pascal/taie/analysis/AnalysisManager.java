@@ -0,0 +1,159 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.Timer;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Creates and executes analyses based on given analysis configurations.
+ * <p>
+ * If the IR cache is enabled, each method analysis is also added as
+ * a rebuild callback of the IR cache (see {@link JMethod#addIRRebuildCallback}),
+ * so that its results are recomputed in the IR rebuilt after eviction.
+ */
+public class AnalysisManager {
+
+    private static final Logger logger = LogManager.getLogger(AnalysisManager.class);
+
+    private List<JClass> classScope;
+
+    private List<JMethod> methodScope;
+
+    public void execute(List<AnalysisConfig> analysisConfigs) {
+        analysisConfigs.forEach(config ->
+                Timer.runAndCount(() -> runAnalysis(config), config.getId()));
+    }
+
+    private void runAnalysis(AnalysisConfig config) {
+        Analysis analysis;
+        try {
+            Class<?> clazz = Class.forName(config.getAnalysisClass());
+            Constructor<?> ctor = clazz.getConstructor(AnalysisConfig.class);
+            analysis = (Analysis) ctor.newInstance(config);
+        } catch (ClassNotFoundException | NoSuchMethodException |
+                InstantiationException | IllegalAccessException |
+                InvocationTargetException e) {
+            throw new AnalysisException("Failed to initialize " +
+                    config.getAnalysisClass(), e);
+        }
+        if (analysis instanceof ProgramAnalysis) {
+            runProgramAnalysis((ProgramAnalysis) analysis);
+        } else if (analysis instanceof ClassAnalysis) {
+            runClassAnalysis((ClassAnalysis) analysis);
+        } else if (analysis instanceof MethodAnalysis) {
+            runMethodAnalysis((MethodAnalysis) analysis);
+        } else {
+            logger.warn(analysis.getClass() + " is not an analysis");
+        }
+    }
+
+    private void runProgramAnalysis(ProgramAnalysis analysis) {
+        Object result = analysis.analyze();
+        if (result != null) {
+            World.get().storeResult(analysis.getId(), result);
+        }
+    }
+
+    private void runClassAnalysis(ClassAnalysis analysis) {
+        getClassScope().parallelStream().forEach(c -> {
+            Object result = analysis.analyze(c);
+            if (result != null) {
+                c.storeResult(analysis.getId(), result);
+            }
+        });
+    }
+
+    private List<JClass> getClassScope() {
+        if (classScope == null) {
+            String scope = World.get().getOptions().getScope();
+            classScope = switch (scope) {
+                case "app" -> World.get().getClassHierarchy()
+                        .applicationClasses().toList();
+                case "all" -> World.get().getClassHierarchy()
+                        .allClasses().toList();
+                default -> throw new ConfigException(
+                        "Unexpected scope option: " + scope);
+            };
+            logger.info("{} classes in scope ({}) of class analyses",
+                    classScope.size(), scope);
+        }
+        return classScope;
+    }
+
+    private void runMethodAnalysis(MethodAnalysis analysis) {
+        if (World.get().getOptions().getIRCacheCapacity() > 0) {
+            // added before the analysis runs, as the IR may be evicted
+            // right after it is analyzed
+            JMethod.addIRRebuildCallback(ir -> runMethodAnalysis(analysis, ir));
+        }
+        getMethodScope().parallelStream().forEach(m ->
+                runMethodAnalysis(analysis, m.getIR()));
+    }
+
+    private static void runMethodAnalysis(MethodAnalysis analysis, IR ir) {
+        Object result = analysis.analyze(ir);
+        if (result != null) {
+            ir.storeResult(analysis.getId(), result);
+        }
+    }
+
+    private List<JMethod> getMethodScope() {
+        if (methodScope == null) {
+            String scope = World.get().getOptions().getScope();
+            methodScope = switch (scope) {
+                case "app", "all" -> getClassScope()
+                        .stream()
+                        .map(JClass::getDeclaredMethods)
+                        .flatMap(Collection::stream)
+                        .filter(m -> !m.isAbstract() && !m.isNative())
+                        .toList();
+                case "reachable" -> {
+                    CallGraph<Invoke, JMethod> callGraph =
+                            World.get().getResult(CallGraphBuilder.ID);
+                    yield callGraph.reachableMethods().toList();
+                }
+                default -> throw new ConfigException(
+                        "Unexpected scope option: " + scope);
+            };
+            logger.info("{} methods in scope ({}) of method analyses",
+                    methodScope.size(), scope);
+        }
+        return methodScope;
+    }
+}
@@ -23,6 +23,7 @@
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
 import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.analysis.dataflow.fact.PersistentHashMap;
 import pascal.taie.ir.exp.Var;
 
 import java.util.Collections;
@@ -41,7 +42,16 @@ import java.util.Map;
 public class CPFact extends MapFact<Var, Value> {
 
     public CPFact() {
-        this(Collections.emptyMap());
+        this(false);
+    }
+
+    /**
+     * @param persistent whether this fact is backed by a
+     *                   {@link PersistentHashMap}, whose copies are
+     *                   constant-time and share structure with each other.
+     */
+    public CPFact(boolean persistent) {
+        this(persistent ? new PersistentHashMap<>() : Collections.emptyMap());
     }
 
     private CPFact(Map<Var, Value> map) {
@@ -45,8 +45,14 @@ public class ConstantPropagation extends
 
     public static final String ID = "constprop";
 
+    /**
+     * Whether to back facts by persistent maps.
+     */
+    private final boolean persistentFact;
+
     public ConstantPropagation(AnalysisConfig config) {
         super(config);
+        persistentFact = getOptions().getBooleanOrDefault("persistent-fact", false);
     }
 
     @Override
@@ -57,18 +63,25 @@ public class ConstantPropagation extends
     @Override
     public CPFact newBoundaryFact(CFG<Stmt> cfg) {
         // TODO - finish me
-        return null;
+        CPFact fact = newInitialFact();
+        for (Var param : cfg.getIR().getParams()) {
+            if (canHoldInt(param)) {
+                fact.update(param, Value.getNAC());
+            }
+        }
+        return fact;
     }
 
     @Override
     public CPFact newInitialFact() {
-        // TODO - finish me
-        return null;
+        return new CPFact(persistentFact);
     }
 
     @Override
     public void meetInto(CPFact fact, CPFact target) {
         // TODO - finish me
+        fact.forEach((var, value) ->
+                target.update(var, meetValue(value, target.get(var))));
     }
 
     /**
@@ -76,13 +89,36 @@ public class ConstantPropagation extends
      */
     public Value meetValue(Value v1, Value v2) {
         // TODO - finish me
-        return null;
+        return meet(v1, v2);
+    }
+
+    /**
+     * Meets two Values. This is the only implementation of the meet
+     * of constant propagation, which is shared by the intra- and
+     * inter-procedural analyses.
+     */
+    public static Value meet(Value v1, Value v2) {
+        if (v1.isUndef()) {
+            return v2;
+        } else if (v2.isUndef()) {
+            return v1;
+        } else if (v1.equals(v2)) {
+            return v1;
+        } else {
+            return Value.getNAC();
+        }
     }
 
     @Override
     public boolean transferNode(Stmt stmt, CPFact in, CPFact out) {
         // TODO - finish me
-        return false;
+        if (stmt instanceof DefinitionStmt<?, ?> def
+                && def.getLValue() instanceof Var lhs && canHoldInt(lhs)) {
+            CPFact fact = in.copy();
+            fact.update(lhs, evaluate(def.getRValue(), in));
+            return out.copyFrom(fact);
+        }
+        return out.copyFrom(in);
     }
 
     /**
@@ -112,6 +148,83 @@ public class ConstantPropagation extends
      */
     public static Value evaluate(Exp exp, CPFact in) {
         // TODO - finish me
-        return null;
+        if (exp instanceof IntLiteral literal) {
+            return Value.makeConstant(literal.getValue());
+        } else if (exp instanceof Var var) {
+            return canHoldInt(var) ? in.get(var) : Value.getNAC();
+        } else if (exp instanceof BinaryExp binary) {
+            return evaluate(binary.getOperator(),
+                    evaluate(binary.getOperand1(), in),
+                    evaluate(binary.getOperand2(), in));
+        }
+        // other expressions, e.g., invocations and field loads, are not tracked
+        return Value.getNAC();
+    }
+
+    /**
+     * Evaluates binary operation on two Values.
+     */
+    public static Value evaluate(BinaryExp.Op op, Value v1, Value v2) {
+        if (isDivision(op) && v2.isConstant() && v2.getConstant() == 0) {
+            // division by zero never yields a value
+            return Value.getUndef();
+        }
+        if (v1.isConstant() && v2.isConstant()) {
+            return evaluate(op, v1.getConstant(), v2.getConstant());
+        } else if (v1.isNAC() || v2.isNAC()) {
+            return Value.getNAC();
+        } else {
+            return Value.getUndef();
+        }
+    }
+
+    private static boolean isDivision(BinaryExp.Op op) {
+        return op == ArithmeticExp.Op.DIV || op == ArithmeticExp.Op.REM;
+    }
+
+    /**
+     * Evaluates binary operation on two int constants.
+     *
+     * @return the resulting value, which is UNDEF for division by zero.
+     */
+    public static Value evaluate(BinaryExp.Op op, int i1, int i2) {
+        if (isDivision(op) && i2 == 0) {
+            return Value.getUndef();
+        }
+        int result;
+        if (op instanceof ArithmeticExp.Op arithmeticOp) {
+            result = switch (arithmeticOp) {
+                case ADD -> i1 + i2;
+                case SUB -> i1 - i2;
+                case MUL -> i1 * i2;
+                case DIV -> i1 / i2;
+                case REM -> i1 % i2;
+            };
+        } else if (op instanceof BitwiseExp.Op bitwiseOp) {
+            result = switch (bitwiseOp) {
+                case OR -> i1 | i2;
+                case AND -> i1 & i2;
+                case XOR -> i1 ^ i2;
+            };
+        } else if (op instanceof ShiftExp.Op shiftOp) {
+            result = switch (shiftOp) {
+                case SHL -> i1 << i2;
+                case SHR -> i1 >> i2;
+                case USHR -> i1 >>> i2;
+            };
+        } else if (op instanceof ConditionExp.Op conditionOp) {
+            boolean cond = switch (conditionOp) {
+                case EQ -> i1 == i2;
+                case NE -> i1 != i2;
+                case LT -> i1 < i2;
+                case GT -> i1 > i2;
+                case LE -> i1 <= i2;
+                case GE -> i1 >= i2;
+            };
+            result = cond ? 1 : 0;
+        } else {
+            return Value.getNAC();
+        }
+        return Value.makeConstant(result);
     }
 }
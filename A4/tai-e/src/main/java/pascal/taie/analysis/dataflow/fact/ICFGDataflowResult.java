@@ -0,0 +1,74 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.analysis.graph.icfg.CompactICFG;
+import pascal.taie.ir.stmt.Stmt;
+
+/**
+ * A {@link DataflowResult} for the statements of a {@link CompactICFG},
+ * which stores the facts in arrays indexed by the dense node IDs
+ * of the ICFG.
+ * <p>
+ * Other ICFGs do not number their nodes densely, so their results
+ * should be kept in a {@link MapDataflowResult}.
+ *
+ * @param <Fact> type of data-flow facts
+ */
+public class ICFGDataflowResult<Fact> extends DataflowResult<Stmt, Fact> {
+
+    private final CompactICFG icfg;
+
+    private final Object[] inFacts;
+
+    private final Object[] outFacts;
+
+    public ICFGDataflowResult(CompactICFG icfg) {
+        this.icfg = icfg;
+        inFacts = new Object[icfg.getNumberOfNodes()];
+        outFacts = new Object[icfg.getNumberOfNodes()];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Fact getInFact(Stmt stmt) {
+        int id = icfg.getId(stmt);
+        return id >= 0 ? (Fact) inFacts[id] : null;
+    }
+
+    @Override
+    public void setInFact(Stmt stmt, Fact fact) {
+        inFacts[icfg.getId(stmt)] = fact;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Fact getOutFact(Stmt stmt) {
+        int id = icfg.getId(stmt);
+        return id >= 0 ? (Fact) outFacts[id] : null;
+    }
+
+    @Override
+    public void setOutFact(Stmt stmt, Fact fact) {
+        outFacts[icfg.getId(stmt)] = fact;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link DataflowResult} which keeps the facts in maps,
+ * and thus works for any kind of nodes.
+ *
+ * @param <Node> type of nodes
+ * @param <Fact> type of data-flow facts
+ */
+public class MapDataflowResult<Node, Fact> extends DataflowResult<Node, Fact> {
+
+    private final Map<Node, Fact> inFacts = new LinkedHashMap<>();
+
+    private final Map<Node, Fact> outFacts = new LinkedHashMap<>();
+
+    @Override
+    public Fact getInFact(Node node) {
+        return inFacts.get(node);
+    }
+
+    @Override
+    public void setInFact(Node node, Fact fact) {
+        inFacts.put(node, fact);
+    }
+
+    @Override
+    public Fact getOutFact(Node node) {
+        return outFacts.get(node);
+    }
+
+    @Override
+    public void setOutFact(Node node, Fact fact) {
+        outFacts.put(node, fact);
+    }
+}
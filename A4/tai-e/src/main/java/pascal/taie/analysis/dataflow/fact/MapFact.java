@@ -47,11 +47,15 @@ public class MapFact<K, V> {
 
     /**
      * Constructs a new MapFact with the same mappings as specified Map.
+     * If the given map is a {@link PersistentHashMap}, the new fact is
+     * backed by a constant-time copy of it, otherwise by a hybrid map.
      *
      * @param map the map whose mappings are to be placed in this map.
      */
     public MapFact(Map<K, V> map) {
-        this.map = Maps.newHybridMap(map);
+        this.map = map instanceof PersistentHashMap ?
+                ((PersistentHashMap<K, V>) map).copy() :
+                Maps.newHybridMap(map);
     }
 
     /**
@@ -87,6 +91,20 @@ public class MapFact<K, V> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean copyFrom(MapFact<K, V> fact) {
+        if (map instanceof PersistentHashMap &&
+                fact.map instanceof PersistentHashMap) {
+            PersistentHashMap<K, V> thisMap = (PersistentHashMap<K, V>) map;
+            PersistentHashMap<K, V> thatMap = (PersistentHashMap<K, V>) fact.map;
+            if (thisMap.sharesWith(thatMap)) {
+                return false;
+            }
+            if (thisMap.isEmpty()) {
+                // the result holds exactly the mappings of given fact,
+                // so just share its trie
+                thisMap.shareFrom(thatMap);
+                return !thatMap.isEmpty();
+            }
+        }
         boolean changed = false;
         for (Map.Entry<K, V> entry : fact.map.entrySet()) {
             changed |= update(entry.getKey(), entry.getValue());
@@ -0,0 +1,557 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.fact;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * A map backed by an immutable hash array mapped trie (HAMT).
+ * <p>
+ * The trie nodes are never modified after construction: updates copy
+ * only the path from the root to the changed entry, and the rest of the
+ * trie is shared. As a result, {@link #copy()} takes constant time, and
+ * the copies can be updated independently.
+ * <p>
+ * This map does not support null keys.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+public class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+    /**
+     * Number of hash bits consumed by each level of the trie.
+     */
+    private static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final Object NOT_FOUND = new Object();
+
+    private static final BitmapNode EMPTY_NODE = new BitmapNode(0, new Object[0]);
+
+    private Node root;
+
+    private int size;
+
+    /**
+     * Hash code of this map, maintained incrementally as the sum of
+     * the hash codes of all entries.
+     */
+    private int hash;
+
+    public PersistentHashMap() {
+        this(EMPTY_NODE, 0, 0);
+    }
+
+    private PersistentHashMap(Node root, int size, int hash) {
+        this.root = root;
+        this.size = size;
+        this.hash = hash;
+    }
+
+    /**
+     * @return a copy of this map which shares all trie nodes with this map.
+     */
+    public PersistentHashMap<K, V> copy() {
+        return new PersistentHashMap<>(root, size, hash);
+    }
+
+    /**
+     * Makes this map hold the same mappings as given map
+     * by sharing its trie.
+     */
+    void shareFrom(PersistentHashMap<K, V> other) {
+        root = other.root;
+        size = other.size;
+        hash = other.hash;
+    }
+
+    /**
+     * @return true if this map and given map share the same trie,
+     * which implies that they hold the same mappings.
+     */
+    boolean sharesWith(PersistentHashMap<?, ?> other) {
+        return root == other.root;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null &&
+                root.find(spread(key.hashCode()), key, 0) != NOT_FOUND;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        Object value = root.find(spread(key.hashCode()), key, 0);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Objects.requireNonNull(key, "PersistentHashMap does not support null keys");
+        Change change = new Change();
+        root = root.put(spread(key.hashCode()), key, value, 0, change);
+        if (change.added) {
+            ++size;
+            hash += entryHash(key, value);
+            return null;
+        } else if (change.replaced) {
+            hash += entryHash(key, value) - entryHash(key, change.oldValue);
+        }
+        return (V) change.oldValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (key == null) {
+            return null;
+        }
+        Change change = new Change();
+        Node newRoot = root.remove(spread(key.hashCode()), key, 0, change);
+        if (!change.removed) {
+            return null;
+        }
+        root = newRoot == null ? EMPTY_NODE : newRoot;
+        --size;
+        hash -= entryHash(key, change.oldValue);
+        return (V) change.oldValue;
+    }
+
+    @Override
+    public void clear() {
+        root = EMPTY_NODE;
+        size = 0;
+        hash = 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        root.forEach((BiConsumer<Object, Object>) action);
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof PersistentHashMap) {
+            PersistentHashMap<?, ?> that = (PersistentHashMap<?, ?>) o;
+            if (sharesWith(that)) {
+                return true;
+            }
+            if (size != that.size || hash != that.hash) {
+                return false;
+            }
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static int entryHash(Object key, Object value) {
+        return key.hashCode() ^ Objects.hashCode(value);
+    }
+
+    private static int bitpos(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * Records the effect of an update on the trie.
+     */
+    private static class Change {
+
+        private boolean added;
+
+        private boolean replaced;
+
+        private boolean removed;
+
+        private Object oldValue;
+    }
+
+    /**
+     * A trie node. The entries of a node are stored in a flat array
+     * as [key0, value0, key1, value1, ...]; a null key means that
+     * the following slot holds a sub-node.
+     */
+    private abstract static class Node {
+
+        final Object[] array;
+
+        Node(Object[] array) {
+            this.array = array;
+        }
+
+        abstract Object find(int hash, Object key, int shift);
+
+        abstract Node put(int hash, Object key, Object value,
+                          int shift, Change change);
+
+        /**
+         * @return the node without the entry of given key, or null
+         * if the resulting node is empty.
+         */
+        abstract Node remove(int hash, Object key, int shift, Change change);
+
+        boolean hasSingleEntry() {
+            return array.length == 2 && array[0] != null;
+        }
+
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] != null) {
+                    action.accept(array[i], array[i + 1]);
+                } else {
+                    ((Node) array[i + 1]).forEach(action);
+                }
+            }
+        }
+    }
+
+    /**
+     * A node which distinguishes its entries by {@link #BITS} bits of
+     * their hash codes; {@code bitmap} marks the occupied positions.
+     */
+    private static class BitmapNode extends Node {
+
+        private final int bitmap;
+
+        BitmapNode(int bitmap, Object[] array) {
+            super(array);
+            this.bitmap = bitmap;
+        }
+
+        private int index(int bit) {
+            return 2 * Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(int hash, Object key, int shift) {
+            int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            int i = index(bit);
+            Object k = array[i];
+            if (k == null) {
+                return ((Node) array[i + 1]).find(hash, key, shift + BITS);
+            }
+            return key.equals(k) ? array[i + 1] : NOT_FOUND;
+        }
+
+        @Override
+        Node put(int hash, Object key, Object value, int shift, Change change) {
+            int bit = bitpos(hash, shift);
+            int i = index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, i);
+                newArray[i] = key;
+                newArray[i + 1] = value;
+                System.arraycopy(array, i, newArray, i + 2, array.length - i);
+                change.added = true;
+                return new BitmapNode(bitmap | bit, newArray);
+            }
+            Object k = array[i];
+            Object v = array[i + 1];
+            if (k == null) {
+                Node sub = (Node) v;
+                Node newSub = sub.put(hash, key, value, shift + BITS, change);
+                return newSub == sub ? this : with(i + 1, newSub);
+            }
+            if (key.equals(k)) {
+                if (Objects.equals(v, value)) {
+                    change.oldValue = v;
+                    return this;
+                }
+                change.replaced = true;
+                change.oldValue = v;
+                return with(i + 1, value);
+            }
+            change.added = true;
+            Node sub = createNode(shift + BITS,
+                    k, v, spread(k.hashCode()), key, value, hash);
+            Object[] newArray = array.clone();
+            newArray[i] = null;
+            newArray[i + 1] = sub;
+            return new BitmapNode(bitmap, newArray);
+        }
+
+        @Override
+        Node remove(int hash, Object key, int shift, Change change) {
+            int bit = bitpos(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int i = index(bit);
+            Object k = array[i];
+            if (k == null) {
+                Node sub = (Node) array[i + 1];
+                Node newSub = sub.remove(hash, key, shift + BITS, change);
+                if (newSub == sub) {
+                    return this;
+                } else if (newSub == null) {
+                    return without(bit, i);
+                } else if (newSub.hasSingleEntry()) {
+                    // inline the remaining entry to keep the trie shallow
+                    Object[] newArray = array.clone();
+                    newArray[i] = newSub.array[0];
+                    newArray[i + 1] = newSub.array[1];
+                    return new BitmapNode(bitmap, newArray);
+                } else {
+                    return with(i + 1, newSub);
+                }
+            }
+            if (!key.equals(k)) {
+                return this;
+            }
+            change.removed = true;
+            change.oldValue = array[i + 1];
+            return without(bit, i);
+        }
+
+        private Node with(int i, Object o) {
+            Object[] newArray = array.clone();
+            newArray[i] = o;
+            return new BitmapNode(bitmap, newArray);
+        }
+
+        private Node without(int bit, int i) {
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+            return new BitmapNode(bitmap ^ bit, newArray);
+        }
+
+        private static Node createNode(int shift,
+                                       Object k1, Object v1, int h1,
+                                       Object k2, Object v2, int h2) {
+            if (h1 == h2) {
+                return new CollisionNode(h1, new Object[]{k1, v1, k2, v2});
+            }
+            Change ignored = new Change();
+            return EMPTY_NODE.put(h1, k1, v1, shift, ignored)
+                    .put(h2, k2, v2, shift, ignored);
+        }
+    }
+
+    /**
+     * A node holding entries whose keys have the same (spread) hash code.
+     */
+    private static class CollisionNode extends Node {
+
+        private final int hash;
+
+        CollisionNode(int hash, Object[] array) {
+            super(array);
+            this.hash = hash;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int hash, Object key, int shift) {
+            if (hash != this.hash) {
+                return NOT_FOUND;
+            }
+            int i = indexOf(key);
+            return i < 0 ? NOT_FOUND : array[i + 1];
+        }
+
+        @Override
+        Node put(int hash, Object key, Object value, int shift, Change change) {
+            if (hash != this.hash) {
+                // nest this node into a bitmap node of current level
+                return new BitmapNode(bitpos(this.hash, shift),
+                        new Object[]{null, this})
+                        .put(hash, key, value, shift, change);
+            }
+            int i = indexOf(key);
+            if (i < 0) {
+                Object[] newArray = Arrays.copyOf(array, array.length + 2);
+                newArray[array.length] = key;
+                newArray[array.length + 1] = value;
+                change.added = true;
+                return new CollisionNode(hash, newArray);
+            }
+            change.oldValue = array[i + 1];
+            if (Objects.equals(array[i + 1], value)) {
+                return this;
+            }
+            change.replaced = true;
+            Object[] newArray = array.clone();
+            newArray[i + 1] = value;
+            return new CollisionNode(hash, newArray);
+        }
+
+        @Override
+        Node remove(int hash, Object key, int shift, Change change) {
+            int i = hash == this.hash ? indexOf(key) : -1;
+            if (i < 0) {
+                return this;
+            }
+            change.removed = true;
+            change.oldValue = array[i + 1];
+            if (array.length == 2) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+            return new CollisionNode(hash, newArray);
+        }
+    }
+
+    /**
+     * Iterates over the entries of the trie that was current when
+     * the iterator was created.
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+
+        private final Deque<Object[]> arrays = new ArrayDeque<>();
+
+        private final Deque<Integer> positions = new ArrayDeque<>();
+
+        private Object[] array;
+
+        private int pos;
+
+        private K lastKey;
+
+        private EntryIterator() {
+            array = root.array;
+            pos = 0;
+            advance();
+        }
+
+        /**
+         * Moves to the next key-value slot, descending into sub-nodes.
+         */
+        private void advance() {
+            while (true) {
+                if (pos < array.length) {
+                    if (array[pos] != null) {
+                        return;
+                    }
+                    arrays.push(array);
+                    positions.push(pos + 2);
+                    array = ((Node) array[pos + 1]).array;
+                    pos = 0;
+                } else if (!arrays.isEmpty()) {
+                    array = arrays.pop();
+                    pos = positions.pop();
+                } else {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pos < array.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            K key = (K) array[pos];
+            V value = (V) array[pos + 1];
+            pos += 2;
+            advance();
+            lastKey = key;
+            return new SimpleImmutableEntry<>(key, value);
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            PersistentHashMap.this.remove(lastKey);
+            lastKey = null;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.stmt.Stmt;
+
+/**
+ * A {@link DataflowResult} for the statements of a single method,
+ * which stores the facts in arrays indexed by {@link Stmt#getIndex()}.
+ * The entry and exit nodes of the CFG occupy the two slots following
+ * the statements of the IR.
+ *
+ * @param <Fact> type of data-flow facts
+ */
+public class StmtDataflowResult<Fact> extends DataflowResult<Stmt, Fact> {
+
+    private final Object[] inFacts;
+
+    private final Object[] outFacts;
+
+    public StmtDataflowResult(CFG<Stmt> cfg) {
+        // the CFG builder indexes entry and exit nodes as
+        // stmts.size() and stmts.size() + 1
+        int size = cfg.getIR().getStmts().size() + 2;
+        inFacts = new Object[size];
+        outFacts = new Object[size];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Fact getInFact(Stmt stmt) {
+        int i = stmt.getIndex();
+        return i < inFacts.length ? (Fact) inFacts[i] : null;
+    }
+
+    @Override
+    public void setInFact(Stmt stmt, Fact fact) {
+        inFacts[stmt.getIndex()] = fact;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Fact getOutFact(Stmt stmt) {
+        int i = stmt.getIndex();
+        return i < outFacts.length ? (Fact) outFacts[i] : null;
+    }
+
+    @Override
+    public void setOutFact(Stmt stmt, Fact fact) {
+        outFacts[stmt.getIndex()] = fact;
+    }
+}
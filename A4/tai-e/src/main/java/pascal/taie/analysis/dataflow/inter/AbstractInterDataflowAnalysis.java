@@ -33,6 +33,7 @@ import pascal.taie.analysis.graph.icfg.ICFGEdge;
 import pascal.taie.analysis.graph.icfg.NormalEdge;
 import pascal.taie.analysis.graph.icfg.ReturnEdge;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.util.Threads;
 
 /**
  * Provides common functionalities for {@link InterDataflowAnalysis} implementations.
@@ -121,7 +122,8 @@ public abstract class AbstractInterDataflowAnalysis<Method, Node, Fact>
     public Object analyze() {
         icfg = World.get().getResult(ICFGBuilder.ID);
         initialize();
-        solver = new InterSolver<>(this, icfg);
+        solver = new InterSolver<>(this, icfg,
+                Threads.getThreads(getOptions()));
         DataflowResult<Node, Fact> result = solver.solve();
         finish();
         return result;
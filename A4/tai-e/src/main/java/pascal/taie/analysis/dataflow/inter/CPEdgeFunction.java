@@ -0,0 +1,249 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.BinaryExp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Edge function of inter-procedural constant propagation.
+ * <p>
+ * Each function has the form {@code λl. k ⊓ s(l)}, where {@code k}
+ * is a {@link Value}, and {@code s} is a strict function, i.e., it maps
+ * UNDEF to UNDEF and NAC to NAC. {@code s} is one of
+ * <ul>
+ *     <li>none: maps every value to UNDEF;</li>
+ *     <li>a chain of operations with constant operands, e.g.,
+ *     {@code l * 2 + 1}, where the empty chain is the identity;</li>
+ *     <li>bottom: maps every constant to NAC.</li>
+ * </ul>
+ * The functions are closed under meet and composition, and form
+ * a lattice of finite height, which guarantees termination of the solver.
+ * Meets and compositions which cannot be represented exactly are
+ * approximated by smaller (i.e., more conservative) functions.
+ */
+final class CPEdgeFunction implements EdgeFunction<Value> {
+
+    private enum Kind {
+        NONE, CHAIN, BOTTOM
+    }
+
+    private static final CPEdgeFunction ALL_TOP =
+            new CPEdgeFunction(Value.getUndef(), Kind.NONE, List.of());
+
+    private static final CPEdgeFunction ALL_BOTTOM =
+            new CPEdgeFunction(Value.getNAC(), Kind.NONE, List.of());
+
+    private static final CPEdgeFunction IDENTITY =
+            new CPEdgeFunction(Value.getUndef(), Kind.CHAIN, List.of());
+
+    private final Value constant;
+
+    private final Kind kind;
+
+    /**
+     * Operations of the chain, applied in order.
+     */
+    private final List<Step> steps;
+
+    private CPEdgeFunction(Value constant, Kind kind, List<Step> steps) {
+        this.constant = constant;
+        this.kind = kind;
+        this.steps = steps;
+    }
+
+    private static CPEdgeFunction make(Value constant, Kind kind, List<Step> steps) {
+        if (constant.isNAC()) {
+            return ALL_BOTTOM;
+        }
+        if (kind != Kind.CHAIN) {
+            steps = List.of();
+        }
+        return new CPEdgeFunction(constant, kind, steps);
+    }
+
+    /**
+     * @return the function which maps every value to UNDEF.
+     */
+    static CPEdgeFunction allTop() {
+        return ALL_TOP;
+    }
+
+    /**
+     * @return the function which maps every value to NAC.
+     */
+    static CPEdgeFunction allBottom() {
+        return ALL_BOTTOM;
+    }
+
+    static CPEdgeFunction identity() {
+        return IDENTITY;
+    }
+
+    /**
+     * @return the function which maps every value to {@code value}.
+     */
+    static CPEdgeFunction constant(Value value) {
+        return make(value, Kind.NONE, List.of());
+    }
+
+    /**
+     * @return the function {@code λl. l op operand}, or
+     * {@code λl. operand op l} if {@code operandFirst} is true.
+     */
+    static CPEdgeFunction operation(BinaryExp.Op op, int operand,
+                                    boolean operandFirst) {
+        if (!operandFirst && (op == ArithmeticExp.Op.DIV ||
+                op == ArithmeticExp.Op.REM) && operand == 0) {
+            // division by zero never yields a value
+            return ALL_TOP;
+        }
+        return make(Value.getUndef(), Kind.CHAIN,
+                List.of(new Step(op, operand, operandFirst)));
+    }
+
+    @Override
+    public Value computeTarget(Value source) {
+        return ConstantPropagation.meet(constant, applyStrict(source));
+    }
+
+    private Value applyStrict(Value source) {
+        return switch (kind) {
+            case NONE -> Value.getUndef();
+            case BOTTOM -> source.isUndef() ? source : Value.getNAC();
+            case CHAIN -> {
+                Value value = source;
+                for (Step step : steps) {
+                    if (!value.isConstant()) {
+                        break;
+                    }
+                    value = step.apply(value.getConstant());
+                }
+                yield value;
+            }
+        };
+    }
+
+    @Override
+    public CPEdgeFunction composeWith(EdgeFunction<Value> second) {
+        CPEdgeFunction g = (CPEdgeFunction) second;
+        if (g.kind == Kind.NONE || kind == Kind.NONE) {
+            // g is constant, or this function is constant
+            return constant(g.computeTarget(constant));
+        }
+        if (constant.isUndef()) {
+            // this function is strict
+            return make(g.constant, composeKind(g), composeSteps(g));
+        }
+        // this function is k ⊓ s(l) where k is a constant, thus
+        // the result is exact for UNDEF and approximated for others
+        return make(g.computeTarget(constant), Kind.BOTTOM, List.of());
+    }
+
+    private Kind composeKind(CPEdgeFunction g) {
+        return kind == Kind.CHAIN && g.kind == Kind.CHAIN
+                ? Kind.CHAIN : Kind.BOTTOM;
+    }
+
+    private List<Step> composeSteps(CPEdgeFunction g) {
+        if (steps.isEmpty()) {
+            return g.steps;
+        } else if (g.steps.isEmpty()) {
+            return steps;
+        } else {
+            List<Step> result = new ArrayList<>(steps.size() + g.steps.size());
+            result.addAll(steps);
+            result.addAll(g.steps);
+            return List.copyOf(result);
+        }
+    }
+
+    @Override
+    public CPEdgeFunction meetWith(EdgeFunction<Value> other) {
+        CPEdgeFunction g = (CPEdgeFunction) other;
+        if (this.equals(g)) {
+            return this;
+        }
+        Value k = ConstantPropagation.meet(constant, g.constant);
+        if (kind == Kind.NONE) {
+            return make(k, g.kind, g.steps);
+        } else if (g.kind == Kind.NONE) {
+            return make(k, kind, steps);
+        } else if (kind == g.kind && steps.equals(g.steps)) {
+            return make(k, kind, steps);
+        } else {
+            return make(k, Kind.BOTTOM, List.of());
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CPEdgeFunction that)) {
+            return false;
+        }
+        return kind == that.kind && constant.equals(that.constant)
+                && steps.equals(that.steps);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(constant, kind, steps);
+    }
+
+    @Override
+    public String toString() {
+        String s = switch (kind) {
+            case NONE -> "UNDEF";
+            case BOTTOM -> "⊥";
+            case CHAIN -> steps.isEmpty() ? "l" : steps.toString();
+        };
+        return constant.isUndef() ? "λl." + s
+                : "λl." + constant + " ⊓ " + s;
+    }
+
+    /**
+     * Binary operation whose one operand is the constant {@code operand}.
+     */
+    private record Step(BinaryExp.Op op, int operand, boolean operandFirst) {
+
+        Value apply(int i) {
+            return operandFirst
+                    ? ConstantPropagation.evaluate(op, operand, i)
+                    : ConstantPropagation.evaluate(op, i, operand);
+        }
+
+        @Override
+        public String toString() {
+            return operandFirst ? operand + " " + op + " l"
+                    : "l " + op + " " + operand;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.PrimitiveType;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Inter-procedural constant propagation for int values as an IDE problem.
+ * <p>
+ * The facts are int variables, and the values are {@link Value}s.
+ * A variable which is not a fact is UNDEF. For {@code x = y op z},
+ * where one operand is a temporary variable holding a constant,
+ * the value of {@code x} is computed from the other operand by
+ * an edge function.
+ * <p>
+ * If neither operand holds a constant, the value of {@code x} depends on
+ * two facts, which no edge function can express. Such statements generate
+ * {@code x} from the zero fact with the value recorded for them, which is
+ * initially UNDEF. Whenever the solver has computed the values of the
+ * operands, {@link #updateFlowFunctions(Function)} meets the evaluated
+ * values into the recorded ones, and the solver propagates the path
+ * edges at the changed statements again.
+ */
+class CPProblem implements IDEProblem<Stmt, Var, Value> {
+
+    private static final Var ZERO = new Var(null, "<zero>", PrimitiveType.INT, -1);
+
+    private final ICFG<JMethod, Stmt> icfg;
+
+    /**
+     * Values of the binary expressions whose operands are both
+     * non-constant variables, keyed by their statements.
+     */
+    private final Map<Stmt, Value> binaryValues = Maps.newMap();
+
+    CPProblem(ICFG<JMethod, Stmt> icfg) {
+        this.icfg = icfg;
+        for (Stmt stmt : icfg) {
+            if (getBinaryOfVars(stmt) != null) {
+                binaryValues.put(stmt, Value.getUndef());
+            }
+        }
+    }
+
+    /**
+     * Evaluates the binary expressions whose operands are both
+     * non-constant variables from the values of their operands,
+     * and meets the results into the recorded values.
+     *
+     * @param values values of the facts before each statement
+     * @return the statements whose recorded values changed.
+     */
+    @Override
+    public Collection<Stmt> updateFlowFunctions(
+            Function<Stmt, Map<Var, Value>> values) {
+        List<Stmt> changed = new ArrayList<>();
+        for (Map.Entry<Stmt, Value> entry : binaryValues.entrySet()) {
+            BinaryExp binary = getBinaryOfVars(entry.getKey());
+            Map<Var, Value> inValues = values.apply(entry.getKey());
+            Value v1 = inValues.getOrDefault(binary.getOperand1(), Value.getUndef());
+            Value v2 = inValues.getOrDefault(binary.getOperand2(), Value.getUndef());
+            Value oldValue = entry.getValue();
+            Value newValue = ConstantPropagation.meet(oldValue,
+                    ConstantPropagation.evaluate(binary.getOperator(), v1, v2));
+            if (!newValue.equals(oldValue)) {
+                entry.setValue(newValue);
+                changed.add(entry.getKey());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return the int binary expression assigned by given statement if
+     * neither of its operands is a temporary int constant, otherwise null.
+     */
+    private static @Nullable BinaryExp getBinaryOfVars(Stmt stmt) {
+        if (stmt instanceof DefinitionStmt<?, ?> def &&
+                def.getLValue() instanceof Var lhs &&
+                ConstantPropagation.canHoldInt(lhs) &&
+                def.getRValue() instanceof BinaryExp binary &&
+                ConstantPropagation.canHoldInt(binary.getOperand1()) &&
+                ConstantPropagation.canHoldInt(binary.getOperand2()) &&
+                getIntConstant(binary.getOperand1()) == null &&
+                getIntConstant(binary.getOperand2()) == null) {
+            return binary;
+        }
+        return null;
+    }
+
+    @Override
+    public Var zeroValue() {
+        return ZERO;
+    }
+
+    @Override
+    public Map<Var, Value> getBoundaryFacts(Stmt entry) {
+        Map<Var, Value> facts = Maps.newHybridMap();
+        icfg.getContainingMethodOf(entry).getIR().getParams().forEach(param -> {
+            if (ConstantPropagation.canHoldInt(param)) {
+                facts.put(param, Value.getNAC());
+            }
+        });
+        return facts;
+    }
+
+    @Override
+    public Map<Var, EdgeFunction<Value>> transferEdge(ICFGEdge<Stmt> edge, Var fact) {
+        if (edge instanceof CallToReturnEdge) {
+            return transferCallToReturnEdge((Invoke) edge.getSource(), fact);
+        } else if (edge instanceof CallEdge<Stmt> callEdge) {
+            return transferCallEdge((Invoke) edge.getSource(),
+                    callEdge.getCallee(), fact);
+        } else if (edge instanceof ReturnEdge<Stmt> returnEdge) {
+            return transferReturnEdge(returnEdge, fact);
+        } else {
+            return transferNormalEdge(edge.getSource(), fact);
+        }
+    }
+
+    private Map<Var, EdgeFunction<Value>> transferNormalEdge(Stmt stmt, Var fact) {
+        if (stmt instanceof DefinitionStmt<?, ?> def &&
+                def.getLValue() instanceof Var lhs &&
+                ConstantPropagation.canHoldInt(lhs)) {
+            Map<Var, EdgeFunction<Value>> result = Maps.newHybridMap();
+            RValue rvalue = def.getRValue();
+            if (fact == ZERO) {
+                result.put(ZERO, identity());
+                CPEdgeFunction gen = binaryValues.containsKey(stmt)
+                        ? generate(binaryValues.get(stmt))
+                        : generate(rvalue);
+                if (gen != null) {
+                    result.put(lhs, gen);
+                }
+            } else {
+                if (!fact.equals(lhs)) {
+                    result.put(fact, identity());
+                }
+                CPEdgeFunction f = binaryValues.containsKey(stmt)
+                        ? null : transferUse(rvalue, fact);
+                if (f != null) {
+                    result.merge(lhs, f, EdgeFunction::meetWith);
+                }
+            }
+            return result;
+        }
+        return Map.of(fact, identity());
+    }
+
+    /**
+     * @return the function generating the value of {@code rvalue}
+     * independently of facts, or null if the value depends on facts.
+     */
+    private static @Nullable CPEdgeFunction generate(RValue rvalue) {
+        if (rvalue instanceof IntLiteral literal) {
+            return CPEdgeFunction.constant(Value.makeConstant(literal.getValue()));
+        } else if (rvalue instanceof Var) {
+            return null;
+        } else if (rvalue instanceof BinaryExp binary &&
+                ConstantPropagation.canHoldInt(binary.getOperand1()) &&
+                ConstantPropagation.canHoldInt(binary.getOperand2())) {
+            Integer c1 = getIntConstant(binary.getOperand1());
+            Integer c2 = getIntConstant(binary.getOperand2());
+            if (c1 != null && c2 != null) {
+                Value value = ConstantPropagation.evaluate(
+                        binary.getOperator(), c1, c2);
+                return value.isUndef() ? null : CPEdgeFunction.constant(value);
+            }
+            return null;
+        } else {
+            return CPEdgeFunction.allBottom();
+        }
+    }
+
+    /**
+     * @return the function generating the value recorded for a binary
+     * expression of two variables, or null if the value is UNDEF.
+     */
+    private static @Nullable CPEdgeFunction generate(Value binaryValue) {
+        return binaryValue.isUndef() ? null : CPEdgeFunction.constant(binaryValue);
+    }
+
+    /**
+     * @return the function computing the value of {@code rvalue} from
+     * the value of {@code var}, or null if {@code rvalue} does not use it.
+     * Binary expressions of two variables are not handled here.
+     */
+    private static @Nullable CPEdgeFunction transferUse(RValue rvalue, Var var) {
+        if (rvalue.equals(var)) {
+            return CPEdgeFunction.identity();
+        } else if (rvalue instanceof BinaryExp binary &&
+                ConstantPropagation.canHoldInt(binary.getOperand1()) &&
+                ConstantPropagation.canHoldInt(binary.getOperand2())) {
+            Var op1 = binary.getOperand1();
+            Var op2 = binary.getOperand2();
+            if (op1.equals(var)) {
+                Integer c2 = getIntConstant(op2);
+                return c2 != null
+                        ? CPEdgeFunction.operation(binary.getOperator(), c2, false)
+                        : null;
+            } else if (op2.equals(var)) {
+                Integer c1 = getIntConstant(op1);
+                return c1 != null
+                        ? CPEdgeFunction.operation(binary.getOperator(), c1, true)
+                        : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the constant held by given temporary variable,
+     * or null if the variable is not a temporary int constant.
+     */
+    private static @Nullable Integer getIntConstant(Var var) {
+        return var.isTempConst() && var.getTempConstValue() instanceof IntLiteral literal
+                ? literal.getValue() : null;
+    }
+
+    private Map<Var, EdgeFunction<Value>> transferCallToReturnEdge(
+            Invoke callSite, Var fact) {
+        return fact.equals(callSite.getResult())
+                ? Map.of() : Map.of(fact, identity());
+    }
+
+    private Map<Var, EdgeFunction<Value>> transferCallEdge(
+            Invoke callSite, JMethod callee, Var fact) {
+        if (fact == ZERO) {
+            return Map.of(ZERO, identity());
+        }
+        Map<Var, EdgeFunction<Value>> result = Maps.newHybridMap();
+        List<Var> args = callSite.getInvokeExp().getArgs();
+        List<Var> params = callee.getIR().getParams();
+        for (int i = 0; i < args.size(); ++i) {
+            if (args.get(i).equals(fact) &&
+                    ConstantPropagation.canHoldInt(params.get(i))) {
+                result.put(params.get(i), identity());
+            }
+        }
+        return result;
+    }
+
+    private Map<Var, EdgeFunction<Value>> transferReturnEdge(
+            ReturnEdge<Stmt> edge, Var fact) {
+        if (fact == ZERO) {
+            return Map.of(ZERO, identity());
+        }
+        Var result = ((Invoke) edge.getCallSite()).getResult();
+        if (result != null && ConstantPropagation.canHoldInt(result) &&
+                edge.getReturnVars().contains(fact)) {
+            return Map.of(result, identity());
+        }
+        return Map.of();
+    }
+
+    @Override
+    public Value topValue() {
+        return Value.getUndef();
+    }
+
+    @Override
+    public Value meetValue(Value v1, Value v2) {
+        return ConstantPropagation.meet(v1, v2);
+    }
+
+    @Override
+    public EdgeFunction<Value> allTop() {
+        return CPEdgeFunction.allTop();
+    }
+
+    @Override
+    public EdgeFunction<Value> identity() {
+        return CPEdgeFunction.identity();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.inter;
+
+/**
+ * Edge function of IDE problems, i.e., a function on values which is
+ * associated with an edge between two data-flow facts.
+ * <p>
+ * Implementations must be immutable, and two edge functions that are
+ * equal (in terms of {@link Object#equals(Object)}) must compute the same
+ * values, as the solver detects fixed points by comparing edge functions.
+ *
+ * @param <V> type of values
+ */
+public interface EdgeFunction<V> {
+
+    /**
+     * @return the value obtained by applying this function to given value.
+     */
+    V computeTarget(V source);
+
+    /**
+     * @return the function which first applies this function,
+     * and then applies {@code second}.
+     */
+    EdgeFunction<V> composeWith(EdgeFunction<V> second);
+
+    /**
+     * @return the meet of this function and {@code other}.
+     */
+    EdgeFunction<V> meetWith(EdgeFunction<V> other);
+}
@@ -0,0 +1,240 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.SimpleGraph;
+import pascal.taie.util.graph.TopoSorter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Work list of ICFG nodes for forward inter-procedural analyses.
+ * <p>
+ * Each node has a priority given by its global position in an order
+ * where the methods follow the topological order of the SCCs of the call
+ * graph (callers before callees), and the nodes of each method follow
+ * the reverse postorder of its CFG. The work list always pops the pending
+ * node with the highest priority, and keeps the pending nodes as a bitmap
+ * over the priorities, thus membership tests and enqueues take O(1) time,
+ * and a poll scans the bitmap only from the smallest pending priority.
+ *
+ * @param <Method> type of methods
+ * @param <Node>   type of ICFG nodes
+ */
+class ICFGWorkList<Method, Node> {
+
+    /**
+     * Nodes sorted in visiting order, i.e., the index of a node
+     * in this list is its priority (smaller index, higher priority).
+     */
+    private final List<Node> order;
+
+    private final Map<Node, Integer> priorities;
+
+    /**
+     * Priorities of the nodes which are currently pending.
+     */
+    private final BitSet inQueue;
+
+    /**
+     * Low-water mark of {@link #inQueue}, i.e., no pending node has
+     * a priority smaller than it, so that polls scan from here instead
+     * of from the beginning of the bitmap.
+     */
+    private int lowWater = 0;
+
+    /**
+     * Priorities of the nodes which have been popped at least once.
+     */
+    private final BitSet visited;
+
+    private int pops = 0;
+
+    private int reEnqueues = 0;
+
+    private int mergedEnqueues = 0;
+
+    ICFGWorkList(ICFG<Method, Node> icfg) {
+        this(computeOrder(icfg));
+    }
+
+    /**
+     * Creates a work list of given nodes, whose priorities follow
+     * their order in {@code order}.
+     */
+    ICFGWorkList(List<Node> order) {
+        this.order = order;
+        priorities = Maps.newMap(order.size());
+        for (int i = 0; i < order.size(); ++i) {
+            priorities.put(order.get(i), i);
+        }
+        inQueue = new BitSet(order.size());
+        visited = new BitSet(order.size());
+    }
+
+    private static <Method, Node> List<Node> computeOrder(ICFG<Method, Node> icfg) {
+        // group nodes by their containing methods, and build the call graph
+        Map<Method, List<Node>> methodNodes = new LinkedHashMap<>();
+        SimpleGraph<Method> callGraph = new SimpleGraph<>();
+        for (Node node : icfg) {
+            Method method = icfg.getContainingMethodOf(node);
+            methodNodes.computeIfAbsent(method, m -> {
+                callGraph.addNode(m);
+                return new ArrayList<>();
+            }).add(node);
+            if (icfg.isCallSite(node)) {
+                for (Method callee : icfg.getCalleesOf(node)) {
+                    callGraph.addEdge(method, callee);
+                }
+            }
+        }
+        List<Node> order = new ArrayList<>(icfg.getNumberOfNodes());
+        for (MergedNode<Method> scc : new TopoSorter<>(
+                new MergedSCCGraph<>(callGraph)).get()) {
+            for (Method method : scc.getNodes()) {
+                List<Node> nodes = methodNodes.get(method);
+                if (nodes != null) {
+                    order.addAll(computeMethodOrder(icfg, method, nodes));
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * @return the nodes of given method in reverse postorder of its CFG,
+     * followed by the nodes unreachable from its entry.
+     */
+    static <Method, Node> List<Node> computeMethodOrder(
+            ICFG<Method, Node> icfg, Method method, List<Node> nodes) {
+        List<Node> postorder = new ArrayList<>(nodes.size());
+        Set<Node> visited = Sets.newSet(nodes.size());
+        Deque<Node> stack = new ArrayDeque<>();
+        Deque<Iterator<Node>> succs = new ArrayDeque<>();
+        Node entry = icfg.getEntryOf(method);
+        if (entry != null) {
+            visited.add(entry);
+            stack.push(entry);
+            succs.push(icfg.getSuccsOf(entry).iterator());
+        }
+        while (!stack.isEmpty()) {
+            Iterator<Node> it = succs.peek();
+            if (it.hasNext()) {
+                Node succ = it.next();
+                // only follow intra-procedural edges
+                if (icfg.getContainingMethodOf(succ).equals(method)
+                        && visited.add(succ)) {
+                    stack.push(succ);
+                    succs.push(icfg.getSuccsOf(succ).iterator());
+                }
+            } else {
+                postorder.add(stack.pop());
+                succs.pop();
+            }
+        }
+        List<Node> order = new ArrayList<>(nodes.size());
+        for (int i = postorder.size() - 1; i >= 0; --i) {
+            order.add(postorder.get(i));
+        }
+        for (Node node : nodes) {
+            if (!visited.contains(node)) {
+                order.add(node);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Adds all nodes to this work list.
+     */
+    void addAll() {
+        inQueue.set(0, order.size());
+        lowWater = 0;
+    }
+
+    /**
+     * Adds a node to this work list. If the node is already pending,
+     * then the two visits are merged.
+     */
+    void add(Node node) {
+        int priority = priorities.get(node);
+        if (inQueue.get(priority)) {
+            ++mergedEnqueues;
+        } else {
+            inQueue.set(priority);
+            lowWater = Math.min(lowWater, priority);
+            if (visited.get(priority)) {
+                ++reEnqueues;
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the pending node with the highest priority.
+     */
+    Node poll() {
+        int priority = inQueue.nextSetBit(lowWater);
+        inQueue.clear(priority);
+        lowWater = priority + 1;
+        visited.set(priority);
+        ++pops;
+        return order.get(priority);
+    }
+
+    boolean isEmpty() {
+        return inQueue.isEmpty();
+    }
+
+    /**
+     * @return number of nodes popped from this work list.
+     */
+    int getPops() {
+        return pops;
+    }
+
+    /**
+     * @return number of enqueues of nodes which had been visited before.
+     */
+    int getReEnqueues() {
+        return reEnqueues;
+    }
+
+    /**
+     * @return number of enqueues merged into pending visits.
+     */
+    int getMergedEnqueues() {
+        return mergedEnqueues;
+    }
+}
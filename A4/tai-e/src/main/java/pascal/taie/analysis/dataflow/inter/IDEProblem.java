@@ -0,0 +1,104 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Template interface for defining forward IDE (inter-procedural
+ * distributive environment) problems, which are solved by {@link IDESolver}.
+ * <p>
+ * An IDE problem is defined over a finite domain of data-flow facts,
+ * and each fact is associated with a value. The flow functions map a fact
+ * holding before the source of an ICFG edge to the facts it makes hold
+ * before the target of the edge, and each resulting fact comes with the
+ * edge function that transforms the values. IFDS problems are IDE problems
+ * whose edge functions are all identities.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <D>    type of data-flow facts
+ * @param <V>    type of values
+ */
+public interface IDEProblem<Node, D, V> {
+
+    /**
+     * @return the special fact that holds at every reachable node,
+     * which is used to generate new facts.
+     */
+    D zeroValue();
+
+    /**
+     * @return the facts (other than {@link #zeroValue()}) and their values
+     * which hold at the entry node of an entry method.
+     */
+    Map<D, V> getBoundaryFacts(Node entry);
+
+    /**
+     * Flow function for this problem.
+     *
+     * @param edge the ICFG edge that the flow function is applied on.
+     * @param fact the fact holding before the source node of the edge.
+     * @return the facts holding before the target node of the edge,
+     * and their edge functions.
+     */
+    Map<D, EdgeFunction<V>> transferEdge(ICFGEdge<Node> edge, D fact);
+
+    /**
+     * Updates the flow functions which depend on the values of facts,
+     * e.g., a fact generated with a value computed from two other facts,
+     * which no edge function can express. The solver calls this method
+     * whenever it has computed the values at all nodes, and propagates
+     * the path edges at the returned nodes again, until no flow function
+     * changes. The updates must be monotone to guarantee termination.
+     *
+     * @param values the values of the facts which hold before each node
+     * @return the nodes whose outgoing flow functions changed.
+     */
+    default Collection<Node> updateFlowFunctions(Function<Node, Map<D, V>> values) {
+        return List.of();
+    }
+
+    /**
+     * @return the top value, i.e., the value of facts which do not hold.
+     */
+    V topValue();
+
+    /**
+     * Meets two values.
+     */
+    V meetValue(V v1, V v2);
+
+    /**
+     * @return the edge function which maps every value to the top value.
+     */
+    EdgeFunction<V> allTop();
+
+    /**
+     * @return the identity edge function.
+     */
+    EdgeFunction<V> identity();
+}
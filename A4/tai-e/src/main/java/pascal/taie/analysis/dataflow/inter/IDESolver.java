@@ -0,0 +1,410 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.inter;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Solver for {@link IDEProblem}s, which implements the tabulation algorithm
+ * of Sagiv, Reps and Horwitz (TCS'96).
+ * <p>
+ * Phase I computes jump functions along path edges, i.e., the edge function
+ * from a fact holding at the entry of a method to a fact holding at a node
+ * of the method, together with end summaries of methods. The body of
+ * a callee is analyzed once for each distinct fact that reaches its entry,
+ * and the end summaries are reused by all call sites that pass that fact.
+ * Phase II propagates values to method entries, and then computes the
+ * values at all nodes by applying the jump functions.
+ * <p>
+ * If the problem updates flow functions from the values (see
+ * {@link IDEProblem#updateFlowFunctions}), the path edges at the updated
+ * nodes are propagated again on top of the existing jump functions, and
+ * Phase II is repeated, until no flow function changes.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ * @param <D>      type of data-flow facts
+ * @param <V>      type of values
+ */
+class IDESolver<Method, Node, D, V> {
+
+    private static final Logger logger = LogManager.getLogger(IDESolver.class);
+
+    private final IDEProblem<Node, D, V> problem;
+
+    private final ICFG<Method, Node> icfg;
+
+    private final D zero;
+
+    /**
+     * Nodes of each method.
+     */
+    private final Map<Method, List<Node>> methodNodes = Maps.newMap();
+
+    /**
+     * Jump functions: node -> target fact -> source fact -> edge function,
+     * where the source fact holds at the entry of the method containing
+     * the node.
+     */
+    private final Map<Node, Map<D, Map<D, EdgeFunction<V>>>> jumpFns = Maps.newMap();
+
+    /**
+     * End summaries: method -> entry fact -> exit fact -> edge function.
+     */
+    private final Map<Method, Map<D, Map<D, EdgeFunction<V>>>> endSummaries = Maps.newMap();
+
+    /**
+     * Incoming calls: method -> entry fact -> call site -> facts holding
+     * at the call site which generate the entry fact.
+     */
+    private final Map<Method, Map<D, Map<Node, Set<D>>>> incoming = Maps.newMap();
+
+    private final Deque<PathEdge<Node, D>> workList = new ArrayDeque<>();
+
+    private final Set<PathEdge<Node, D>> inWorkList = Sets.newSet();
+
+    /**
+     * Values of facts at method entries.
+     */
+    private final Map<Node, Map<D, V>> entryValues = Maps.newMap();
+
+    /**
+     * Values of facts at all nodes.
+     */
+    private final Map<Node, Map<D, V>> values = Maps.newMap();
+
+    IDESolver(IDEProblem<Node, D, V> problem, ICFG<Method, Node> icfg) {
+        this.problem = problem;
+        this.icfg = icfg;
+        this.zero = problem.zeroValue();
+    }
+
+    void solve() {
+        icfg.forEach(node -> methodNodes.computeIfAbsent(
+                icfg.getContainingMethodOf(node), m -> new ArrayList<>())
+                .add(node));
+        initialize();
+        int updates = 0;
+        while (true) {
+            computeJumpFunctions();
+            computeEntryValues();
+            computeValues();
+            Collection<Node> changed = problem.updateFlowFunctions(this::getValues);
+            if (changed.isEmpty()) {
+                break;
+            }
+            // the flow functions at the changed nodes are smaller, thus
+            // propagating their path edges again only lowers the jump
+            // functions, and the values are recomputed from scratch
+            ++updates;
+            changed.forEach(this::repropagate);
+            entryValues.clear();
+            values.clear();
+        }
+        logger.debug("IDE solver: {} jump functions, {} end summaries," +
+                        " {} updates of flow functions",
+                jumpFns.values().stream()
+                        .flatMap(m -> m.values().stream())
+                        .mapToInt(Map::size)
+                        .sum(),
+                endSummaries.values().stream()
+                        .flatMap(m -> m.values().stream())
+                        .mapToInt(Map::size)
+                        .sum(),
+                updates);
+    }
+
+    /**
+     * @return the values of the facts (including the zero fact)
+     * which hold before given node.
+     */
+    Map<D, V> getValues(Node node) {
+        return values.getOrDefault(node, Collections.emptyMap());
+    }
+
+    // ---------- Phase I: jump functions and end summaries ----------
+
+    private void initialize() {
+        EdgeFunction<V> identity = problem.identity();
+        icfg.entryMethods().forEach(method -> {
+            Node entry = icfg.getEntryOf(method);
+            propagate(zero, entry, zero, identity);
+            problem.getBoundaryFacts(entry).keySet().forEach(fact ->
+                    propagate(fact, entry, fact, identity));
+        });
+    }
+
+    /**
+     * Adds all path edges at given node to the work list.
+     */
+    private void repropagate(Node node) {
+        jumpFns.getOrDefault(node, Map.of()).forEach((d2, fns) ->
+                fns.keySet().forEach(d1 -> {
+                    PathEdge<Node, D> edge = new PathEdge<>(d1, node, d2);
+                    if (inWorkList.add(edge)) {
+                        workList.add(edge);
+                    }
+                }));
+    }
+
+    private void computeJumpFunctions() {
+        while (!workList.isEmpty()) {
+            PathEdge<Node, D> edge = workList.poll();
+            inWorkList.remove(edge);
+            Node node = edge.node();
+            EdgeFunction<V> f = jumpFns.get(node)
+                    .get(edge.target()).get(edge.source());
+            if (icfg.isCallSite(node)) {
+                processCall(edge.source(), node, edge.target(), f);
+            } else if (isExit(node)) {
+                processExit(edge.source(), node, edge.target(), f);
+            } else {
+                processNormal(edge.source(), node, edge.target(), f);
+            }
+        }
+    }
+
+    private boolean isExit(Node node) {
+        return node.equals(icfg.getExitOf(icfg.getContainingMethodOf(node)));
+    }
+
+    private void processCall(D d1, Node callSite, D d2, EdgeFunction<V> f) {
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(callSite)) {
+            if (edge instanceof CallEdge) {
+                Node calleeEntry = edge.getTarget();
+                Method callee = icfg.getContainingMethodOf(calleeEntry);
+                problem.transferEdge(edge, d2).forEach((d3, fCall) -> {
+                    propagate(d3, calleeEntry, d3, problem.identity());
+                    incoming.computeIfAbsent(callee, m -> Maps.newMap())
+                            .computeIfAbsent(d3, d -> Maps.newMap())
+                            .computeIfAbsent(callSite, n -> Sets.newHybridSet())
+                            .add(d2);
+                    // apply the existing summaries of the callee
+                    getEndSummaries(callee, d3).forEach((d4, fSum) ->
+                            applyReturn(d1, callSite, callee, d4,
+                                    f.composeWith(fCall).composeWith(fSum)));
+                });
+            } else { // call-to-return edge
+                problem.transferEdge(edge, d2).forEach((d3, g) ->
+                        propagate(d1, edge.getTarget(), d3, f.composeWith(g)));
+            }
+        }
+    }
+
+    private void processExit(D d1, Node exit, D d2, EdgeFunction<V> f) {
+        Method method = icfg.getContainingMethodOf(exit);
+        endSummaries.computeIfAbsent(method, m -> Maps.newMap())
+                .computeIfAbsent(d1, d -> Maps.newMap())
+                .put(d2, f);
+        Map<Node, Set<D>> callers = incoming.getOrDefault(method, Map.of())
+                .getOrDefault(d1, Map.of());
+        callers.forEach((callSite, callSiteFacts) -> {
+            ICFGEdge<Node> callEdge = getCallEdge(callSite, exit, method);
+            for (D d4 : callSiteFacts) {
+                EdgeFunction<V> fCall = problem.transferEdge(callEdge, d4).get(d1);
+                if (fCall == null) {
+                    continue;
+                }
+                EdgeFunction<V> fSum = fCall.composeWith(f);
+                // extends all path edges that reach the call site with d4
+                getJumpFunctions(callSite, d4).forEach((d3, f3) -> applyReturn(
+                        d3, callSite, method, d2, f3.composeWith(fSum)));
+            }
+        });
+    }
+
+    private void processNormal(D d1, Node node, D d2, EdgeFunction<V> f) {
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(node)) {
+            problem.transferEdge(edge, d2).forEach((d3, g) ->
+                    propagate(d1, edge.getTarget(), d3, f.composeWith(g)));
+        }
+    }
+
+    /**
+     * Propagates fact {@code exitFact} at the exit of {@code callee}
+     * to the return sites of {@code callSite}.
+     *
+     * @param d1 fact at the entry of the caller
+     * @param f  function from {@code d1} to {@code exitFact}
+     */
+    private void applyReturn(D d1, Node callSite, Method callee,
+                             D exitFact, EdgeFunction<V> f) {
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(icfg.getExitOf(callee))) {
+            if (edge instanceof ReturnEdge<Node> returnEdge &&
+                    returnEdge.getCallSite().equals(callSite)) {
+                problem.transferEdge(edge, exitFact).forEach((d5, fRet) ->
+                        propagate(d1, edge.getTarget(), d5, f.composeWith(fRet)));
+            }
+        }
+    }
+
+    private ICFGEdge<Node> getCallEdge(Node callSite, Node exit, Method callee) {
+        Node calleeEntry = icfg.getEntryOf(callee);
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(callSite)) {
+            if (edge instanceof CallEdge && edge.getTarget().equals(calleeEntry)) {
+                return edge;
+            }
+        }
+        throw new IllegalStateException("No call edge from " + callSite +
+                " to " + callee + ", exit: " + exit);
+    }
+
+    /**
+     * Meets {@code f} into the jump function from {@code d1} to
+     * {@code d2} at {@code node}, and adds the path edge to work list
+     * if the jump function changes.
+     */
+    private void propagate(D d1, Node node, D d2, EdgeFunction<V> f) {
+        Map<D, EdgeFunction<V>> fns = jumpFns
+                .computeIfAbsent(node, n -> Maps.newHybridMap())
+                .computeIfAbsent(d2, d -> Maps.newHybridMap());
+        EdgeFunction<V> oldF = fns.getOrDefault(d1, problem.allTop());
+        EdgeFunction<V> newF = oldF.meetWith(f);
+        if (!newF.equals(oldF)) {
+            fns.put(d1, newF);
+            PathEdge<Node, D> edge = new PathEdge<>(d1, node, d2);
+            if (inWorkList.add(edge)) {
+                workList.add(edge);
+            }
+        }
+    }
+
+    /**
+     * @return jump functions to fact {@code d2} at {@code node},
+     * indexed by the facts at the entry of the method.
+     */
+    private Map<D, EdgeFunction<V>> getJumpFunctions(Node node, D d2) {
+        return jumpFns.getOrDefault(node, Map.of()).getOrDefault(d2, Map.of());
+    }
+
+    private Map<D, EdgeFunction<V>> getEndSummaries(Method method, D d1) {
+        return endSummaries.getOrDefault(method, Map.of())
+                .getOrDefault(d1, Map.of());
+    }
+
+    // ---------- Phase II: values ----------
+
+    /**
+     * Propagates values of facts from the entries of entry methods
+     * to the entries of all reachable methods.
+     */
+    private void computeEntryValues() {
+        Deque<EntryFact<Node, D>> entryWorkList = new ArrayDeque<>();
+        icfg.entryMethods().forEach(method -> {
+            Node entry = icfg.getEntryOf(method);
+            setEntryValue(entry, zero, problem.topValue(), entryWorkList);
+            problem.getBoundaryFacts(entry).forEach((fact, value) ->
+                    setEntryValue(entry, fact, value, entryWorkList));
+        });
+        while (!entryWorkList.isEmpty()) {
+            EntryFact<Node, D> entryFact = entryWorkList.poll();
+            Node entry = entryFact.entry();
+            D d1 = entryFact.fact();
+            V value = entryValues.get(entry).get(d1);
+            Method method = icfg.getContainingMethodOf(entry);
+            for (Node node : methodNodes.get(method)) {
+                if (!icfg.isCallSite(node)) {
+                    continue;
+                }
+                jumpFns.getOrDefault(node, Map.of()).forEach((d2, fns) -> {
+                    EdgeFunction<V> f = fns.get(d1);
+                    if (f == null) {
+                        return;
+                    }
+                    V callSiteValue = f.computeTarget(value);
+                    for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(node)) {
+                        if (edge instanceof CallEdge) {
+                            problem.transferEdge(edge, d2).forEach((d3, fCall) ->
+                                    setEntryValue(edge.getTarget(), d3,
+                                            fCall.computeTarget(callSiteValue),
+                                            entryWorkList));
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private void setEntryValue(Node entry, D fact, V value,
+                               Deque<EntryFact<Node, D>> entryWorkList) {
+        Map<D, V> factValues = entryValues.computeIfAbsent(
+                entry, n -> Maps.newHybridMap());
+        V oldValue = factValues.get(fact);
+        V newValue = oldValue == null ? value
+                : problem.meetValue(oldValue, value);
+        // a fact reaching an entry for the first time is always
+        // propagated, even if its value is top
+        if (oldValue == null || !newValue.equals(oldValue)) {
+            factValues.put(fact, newValue);
+            entryWorkList.add(new EntryFact<>(entry, fact));
+        }
+    }
+
+    /**
+     * Computes the values at all nodes by applying jump functions
+     * to the values at method entries.
+     */
+    private void computeValues() {
+        methodNodes.forEach((method, nodes) -> {
+            Map<D, V> entryFactValues = entryValues.get(icfg.getEntryOf(method));
+            if (entryFactValues == null) {
+                return;
+            }
+            for (Node node : nodes) {
+                Map<D, V> nodeValues = Maps.newHybridMap();
+                jumpFns.getOrDefault(node, Map.of()).forEach((d2, fns) ->
+                        fns.forEach((d1, f) -> {
+                            V entryValue = entryFactValues.get(d1);
+                            if (entryValue != null) {
+                                V value = f.computeTarget(entryValue);
+                                nodeValues.merge(d2, value, problem::meetValue);
+                            }
+                        }));
+                if (!nodeValues.isEmpty()) {
+                    values.put(node, nodeValues);
+                }
+            }
+        });
+    }
+
+    private record PathEdge<Node, D>(D source, Node node, D target) {
+    }
+
+    private record EntryFact<Node, D>(Node entry, D fact) {
+    }
+}
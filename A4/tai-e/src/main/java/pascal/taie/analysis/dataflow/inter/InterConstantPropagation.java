@@ -22,12 +22,19 @@
 
 package pascal.taie.analysis.dataflow.inter;
 
+import pascal.taie.World;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
 import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.ICFGDataflowResult;
+import pascal.taie.analysis.dataflow.fact.MapDataflowResult;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.icfg.CallEdge;
 import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.CompactICFG;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
 import pascal.taie.analysis.graph.icfg.NormalEdge;
 import pascal.taie.analysis.graph.icfg.ReturnEdge;
 import pascal.taie.config.AnalysisConfig;
@@ -42,6 +49,7 @@ import pascal.taie.language.classes.JMethod;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementation of interprocedural constant propagation for int values.
@@ -53,9 +61,78 @@ public class InterConstantPropagation extends
 
     private final ConstantPropagation cp;
 
+    /**
+     * Whether to solve this analysis as an IDE problem.
+     */
+    private final boolean ide;
+
     public InterConstantPropagation(AnalysisConfig config) {
         super(config);
-        cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+        ide = getOptions().getBooleanOrDefault("ide", false);
+        cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID,
+                "persistent-fact",
+                getOptions().getBooleanOrDefault("persistent-fact", false)));
+    }
+
+    @Override
+    public Object analyze() {
+        if (!ide) {
+            return super.analyze();
+        }
+        icfg = World.get().getResult(ICFGBuilder.ID);
+        CPProblem problem = new CPProblem(icfg);
+        IDESolver<JMethod, Stmt, Var, Value> ideSolver =
+                new IDESolver<>(problem, icfg);
+        ideSolver.solve();
+        return toDataflowResult(problem, ideSolver);
+    }
+
+    /**
+     * Converts the values computed by IDE solver to IN and OUT facts.
+     * The OUT fact of a non-call node is obtained by applying the flow
+     * function of its normal out edges to the values before the node.
+     */
+    private DataflowResult<Stmt, CPFact> toDataflowResult(
+            CPProblem problem, IDESolver<JMethod, Stmt, Var, Value> ideSolver) {
+        DataflowResult<Stmt, CPFact> result =
+                icfg instanceof CompactICFG compact ?
+                        new ICFGDataflowResult<>(compact) :
+                        new MapDataflowResult<>();
+        Var zero = problem.zeroValue();
+        for (Stmt stmt : icfg) {
+            Map<Var, Value> values = ideSolver.getValues(stmt);
+            CPFact in = newInitialFact();
+            values.forEach((var, value) -> {
+                if (var != zero) {
+                    in.update(var, value);
+                }
+            });
+            CPFact out = in.copy();
+            if (!icfg.isCallSite(stmt)) {
+                icfg.getOutEdgesOf(stmt)
+                        .stream()
+                        .filter(edge -> edge instanceof NormalEdge)
+                        .findFirst()
+                        .ifPresent(edge -> {
+                            out.clear();
+                            values.forEach((var, value) -> transferValue(
+                                    problem, edge, var, value, out));
+                        });
+            }
+            result.setInFact(stmt, in);
+            result.setOutFact(stmt, out);
+        }
+        return result;
+    }
+
+    private static void transferValue(CPProblem problem, ICFGEdge<Stmt> edge,
+                                      Var var, Value value, CPFact out) {
+        problem.transferEdge(edge, var).forEach((target, f) -> {
+            if (target != problem.zeroValue()) {
+                out.update(target, problem.meetValue(
+                        out.get(target), f.computeTarget(value)));
+            }
+        });
     }
 
     @Override
@@ -92,6 +169,19 @@ public class InterConstantPropagation extends
         return cp.transferNode(stmt, in, out);
     }
 
+    @Override
+    public CPFact transferEdge(CompactICFG icfg, int edge, CPFact out) {
+        Stmt source = icfg.getStmt(icfg.getSource(edge));
+        return switch (icfg.getKind(edge)) {
+            case CompactICFG.NORMAL -> out;
+            case CompactICFG.CALL_TO_RETURN -> transferCallToReturn(source, out);
+            case CompactICFG.CALL ->
+                    transferCall(source, icfg.getCallee(edge), out);
+            default -> transferReturn(icfg.getStmt(icfg.getCallSite(edge)),
+                    icfg.getReturnVars(edge), out);
+        };
+    }
+
     @Override
     protected CPFact transferNormalEdge(NormalEdge<Stmt> edge, CPFact out) {
         // TODO - finish me
@@ -101,11 +191,26 @@ public class InterConstantPropagation extends
     @Override
     protected CPFact transferCallToReturnEdge(CallToReturnEdge<Stmt> edge, CPFact out) {
         // TODO - finish me
+        return transferCallToReturn(edge.getSource(), out);
+    }
+
+    @Override
+    protected CPFact transferCallEdge(CallEdge<Stmt> edge, CPFact callSiteOut) {
+        // TODO - finish me
+        return transferCall(edge.getSource(), edge.getCallee(), callSiteOut);
+    }
+
+    @Override
+    protected CPFact transferReturnEdge(ReturnEdge<Stmt> edge, CPFact returnOut) {
+        // TODO - finish me
+        return transferReturn(edge.getCallSite(), edge.getReturnVars(), returnOut);
+    }
+
+    private CPFact transferCallToReturn(Stmt callSite, CPFact out) {
         // 这里主要是需要kill掉 lvar
         CPFact result = out.copy();
-        Stmt stmt = edge.getSource();
-        if (stmt instanceof DefinitionStmt<?,?>){
-            LValue lv = ((DefinitionStmt<?, ?>) stmt).getLValue();
+        if (callSite instanceof DefinitionStmt<?,?>){
+            LValue lv = ((DefinitionStmt<?, ?>) callSite).getLValue();
             if (lv instanceof Var){
                 result.remove((Var) lv);
             }
@@ -113,15 +218,12 @@ public class InterConstantPropagation extends
         return result;
     }
 
-    @Override
-    protected CPFact transferCallEdge(CallEdge<Stmt> edge, CPFact callSiteOut) {
-        // TODO - finish me
+    private CPFact transferCall(Stmt callSite, JMethod callee, CPFact callSiteOut) {
         // b=addOne(a), int addOne(int x) --> x=val(a)
-        List<Var> params = edge.getCallee().getIR().getParams();
+        List<Var> params = callee.getIR().getParams();
         CPFact result = newInitialFact();
-        Stmt source = edge.getSource();
-        if (source instanceof Invoke){
-            List<Var> args = ((Invoke) source).getInvokeExp().getArgs();
+        if (callSite instanceof Invoke){
+            List<Var> args = ((Invoke) callSite).getInvokeExp().getArgs();
 
             for(int i=0; i<args.size();i++){
                 result.update(params.get(i),callSiteOut.get(args.get(i)));
@@ -130,21 +232,18 @@ public class InterConstantPropagation extends
         return result;
     }
 
-    @Override
-    protected CPFact transferReturnEdge(ReturnEdge<Stmt> edge, CPFact returnOut) {
-        // TODO - finish me
+    private CPFact transferReturn(Stmt callSite, Collection<Var> returnVars,
+                                  CPFact returnOut) {
         // 把returnVar中返回值相关的var的值做一个meet
-        Collection<Var> returnvars = edge.getReturnVars();
-        Stmt stmt = edge.getCallSite();
         CPFact result = newInitialFact();
 
         Value val = Value.getUndef();
-        for (Var var:returnvars){
+        for (Var var:returnVars){
             val = cp.meetValue(val, returnOut.get(var));
         }
 
-        if (stmt instanceof Invoke){
-            Var lv = ((Invoke) stmt).getLValue();
+        if (callSite instanceof Invoke){
+            Var lv = ((Invoke) callSite).getLValue();
             if(lv != null)
                 result.update(lv, val);
         }
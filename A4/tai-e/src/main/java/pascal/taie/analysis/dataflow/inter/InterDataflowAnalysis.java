@@ -22,6 +22,7 @@
 
 package pascal.taie.analysis.dataflow.inter;
 
+import pascal.taie.analysis.graph.icfg.CompactICFG;
 import pascal.taie.analysis.graph.icfg.ICFGEdge;
 
 /**
@@ -71,4 +72,21 @@ public interface InterDataflowAnalysis<Node, Fact> {
      * @return the result of edge transfer function.
      */
     Fact transferEdge(ICFGEdge<Node> edge, Fact out);
+
+    /**
+     * Edge Transfer function on the edge IDs of {@link CompactICFG},
+     * which lets the solvers traverse the compact ICFG without edge objects.
+     * By default, it creates the edge object and applies
+     * {@link #transferEdge(ICFGEdge, Object)}; analyses can override it
+     * to dispatch on {@link CompactICFG#getKind(int)} instead.
+     *
+     * @param icfg the compact ICFG that contains the edge.
+     * @param edge ID of the ICFG edge that the transfer function is applied on.
+     * @param out  the OUT fact of source node of the edge.
+     * @return the result of edge transfer function.
+     */
+    @SuppressWarnings("unchecked")
+    default Fact transferEdge(CompactICFG icfg, int edge, Fact out) {
+        return transferEdge((ICFGEdge<Node>) icfg.getEdge(edge), out);
+    }
 }
@@ -22,11 +22,15 @@
 
 package pascal.taie.analysis.dataflow.inter;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.ICFGDataflowResult;
+import pascal.taie.analysis.dataflow.fact.MapDataflowResult;
+import pascal.taie.analysis.graph.icfg.CompactICFG;
 import pascal.taie.analysis.graph.icfg.ICFG;
-
-import java.util.ArrayDeque;
-import java.util.Queue;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.ir.stmt.Stmt;
 
 /**
  * Solver for inter-procedural data-flow analysis.
@@ -35,27 +39,57 @@ import java.util.Queue;
  */
 class InterSolver<Method, Node, Fact> {
 
+    private static final Logger logger = LogManager.getLogger(InterSolver.class);
+
     private final InterDataflowAnalysis<Node, Fact> analysis;
 
     private final ICFG<Method, Node> icfg;
 
     private DataflowResult<Node, Fact> result;
 
-    private Queue<Node> workList;
+    private ICFGWorkList<Method, Node> workList;
+
+    /**
+     * Number of threads for solving, which is sequential unless it is greater than 1.
+     */
+    private final int threads;
 
     InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
                 ICFG<Method, Node> icfg) {
+        this(analysis, icfg, 0);
+    }
+
+    InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
+                ICFG<Method, Node> icfg, int threads) {
         this.analysis = analysis;
         this.icfg = icfg;
+        this.threads = threads;
     }
 
     DataflowResult<Node, Fact> solve() {
-        result = new DataflowResult<>();
+        result = newResult();
         initialize();
-        doSolve();
+        if (threads > 1) {
+            new SCCScheduler<>(analysis, icfg, result, threads).solve();
+        } else {
+            doSolve();
+        }
         return result;
     }
 
+    /**
+     * @return a new empty data-flow result for the ICFG. For a
+     * {@link CompactICFG}, the result is addressed by its node IDs.
+     */
+    @SuppressWarnings("unchecked")
+    private DataflowResult<Node, Fact> newResult() {
+        if (icfg instanceof CompactICFG compact) {
+            return (DataflowResult<Node, Fact>)
+                    new ICFGDataflowResult<Fact>(compact);
+        }
+        return new MapDataflowResult<>();
+    }
+
     private void initialize() {
         // TODO - finish me
         icfg.forEach(node -> {
@@ -74,11 +108,13 @@ class InterSolver<Method, Node, Fact> {
 
     private void doSolve() {
         // TODO - finish me
-        workList = new ArrayDeque<>();
-        for(Node node: icfg){
-            workList.add(node);
-        }
+        workList = new ICFGWorkList<>(icfg);
+        workList.addAll();
 
+        if (icfg instanceof CompactICFG compact) {
+            doSolve(compact);
+            return;
+        }
         while (!workList.isEmpty()){
             Node node = workList.poll();
 
@@ -90,11 +126,42 @@ class InterSolver<Method, Node, Fact> {
             if(analysis.transferNode(node, result.getInFact(node),result.getOutFact(node))){
                 icfg.getOutEdgesOf(node).forEach(succEdge->{
                     Node succ = succEdge.getTarget();
-                    if (!workList.contains(succ))
-                        workList.add(succ);
+                    workList.add(succ);
                 });
             }
 
         }
+        logger.debug("Inter-procedural work list: {} pops, {} re-enqueues," +
+                        " {} merged enqueues", workList.getPops(),
+                workList.getReEnqueues(), workList.getMergedEnqueues());
+    }
+
+    /**
+     * Work-list solving on a {@link CompactICFG}, which traverses
+     * the edges through its int-based APIs instead of edge sets.
+     */
+    @SuppressWarnings("unchecked")
+    private void doSolve(CompactICFG compact) {
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            int id = compact.getId((Stmt) node);
+            Fact in = result.getInFact(node);
+            for (int i = compact.getInEdgeStart(id);
+                 i < compact.getInEdgeEnd(id); ++i) {
+                int edge = compact.getInEdge(i);
+                Node pred = (Node) compact.getStmt(compact.getSource(edge));
+                analysis.meetInto(analysis.transferEdge(compact, edge,
+                        result.getOutFact(pred)), in);
+            }
+            if (analysis.transferNode(node, in, result.getOutFact(node))) {
+                for (int edge = compact.getOutEdgeStart(id);
+                     edge < compact.getOutEdgeEnd(id); ++edge) {
+                    workList.add((Node) compact.getStmt(compact.getTarget(edge)));
+                }
+            }
+        }
+        logger.debug("Inter-procedural work list: {} pops, {} re-enqueues," +
+                        " {} merged enqueues", workList.getPops(),
+                workList.getReEnqueues(), workList.getMergedEnqueues());
     }
 }
@@ -0,0 +1,255 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.inter;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.icfg.CompactICFG;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.SimpleGraph;
+import pascal.taie.util.graph.TopoSorter;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Solves an inter-procedural data-flow problem in parallel by SCCs of
+ * the call graph.
+ * <p>
+ * The call graph is condensed into SCCs, and each SCC is assigned a level,
+ * i.e., the length of the longest path from the roots of the condensed
+ * graph to it. There is no call edge between two SCCs of the same level,
+ * and a node only reads the facts of its predecessors, thus the SCCs of
+ * the same level can be solved in parallel. Each round solves the levels
+ * top-down, which propagates calling contexts to callees, and then
+ * bottom-up, which propagates return values to callers, until no SCC has
+ * pending nodes. As the work-list algorithm reaches the same fixed point
+ * regardless of the order in which nodes are processed, the result is
+ * the same as the one of sequential solving.
+ */
+class SCCScheduler<Method, Node, Fact> {
+
+    private static final Logger logger = LogManager.getLogger(SCCScheduler.class);
+
+    private final InterDataflowAnalysis<Node, Fact> analysis;
+
+    private final ICFG<Method, Node> icfg;
+
+    /**
+     * {@link #icfg} if it is a {@link CompactICFG}, otherwise null.
+     */
+    @Nullable
+    private final CompactICFG compact;
+
+    private final DataflowResult<Node, Fact> result;
+
+    private final int threads;
+
+    private final Map<Node, Component> components;
+
+    /**
+     * Components grouped by levels.
+     */
+    private final List<List<Component>> levels;
+
+    SCCScheduler(InterDataflowAnalysis<Node, Fact> analysis,
+                 ICFG<Method, Node> icfg,
+                 DataflowResult<Node, Fact> result, int threads) {
+        this.analysis = analysis;
+        this.icfg = icfg;
+        this.compact = icfg instanceof CompactICFG c ? c : null;
+        this.result = result;
+        this.threads = threads;
+        this.components = Maps.newMap(icfg.getNumberOfNodes());
+        this.levels = new ArrayList<>();
+        buildComponents();
+    }
+
+    private void buildComponents() {
+        Map<Method, List<Node>> methodNodes = Maps.newMap();
+        SimpleGraph<Method> callGraph = new SimpleGraph<>();
+        for (Node node : icfg) {
+            Method method = icfg.getContainingMethodOf(node);
+            methodNodes.computeIfAbsent(method, m -> {
+                callGraph.addNode(m);
+                return new ArrayList<>();
+            }).add(node);
+            if (icfg.isCallSite(node)) {
+                for (Method callee : icfg.getCalleesOf(node)) {
+                    callGraph.addEdge(method, callee);
+                }
+            }
+        }
+        MergedSCCGraph<Method> sccGraph = new MergedSCCGraph<>(callGraph);
+        Map<MergedNode<Method>, Integer> sccLevels = Maps.newMap();
+        for (MergedNode<Method> scc : new TopoSorter<>(sccGraph).get()) {
+            int level = sccGraph.getPredsOf(scc)
+                    .stream()
+                    .mapToInt(pred -> sccLevels.get(pred) + 1)
+                    .max()
+                    .orElse(0);
+            sccLevels.put(scc, level);
+            List<Node> order = new ArrayList<>();
+            for (Method method : scc.getNodes()) {
+                List<Node> nodes = methodNodes.get(method);
+                if (nodes != null) {
+                    order.addAll(ICFGWorkList.computeMethodOrder(
+                            icfg, method, nodes));
+                }
+            }
+            Component component = new Component(order);
+            order.forEach(node -> components.put(node, component));
+            while (levels.size() <= level) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(level).add(component);
+        }
+    }
+
+    void solve() {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            int rounds = 0;
+            while (hasPendingNodes()) {
+                ++rounds;
+                for (List<Component> level : levels) {
+                    solveLevel(pool, level);
+                }
+                for (int i = levels.size() - 1; i >= 0; --i) {
+                    solveLevel(pool, levels.get(i));
+                }
+            }
+            logger.info("Solved {} SCCs in {} levels with {} threads, {} rounds",
+                    components.values().stream().distinct().count(),
+                    levels.size(), threads, rounds);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private boolean hasPendingNodes() {
+        return levels.stream()
+                .flatMap(List::stream)
+                .anyMatch(Component::hasPendingNodes);
+    }
+
+    private void solveLevel(ForkJoinPool pool, List<Component> level) {
+        List<Component> pending = level.stream()
+                .filter(Component::hasPendingNodes)
+                .toList();
+        if (pending.size() == 1) {
+            pending.get(0).solve();
+        } else if (!pending.isEmpty()) {
+            pool.submit(() -> pending.parallelStream()
+                    .forEach(Component::solve)).join();
+        }
+    }
+
+    /**
+     * The nodes of the methods in an SCC of the call graph.
+     */
+    private class Component {
+
+        private final ICFGWorkList<Method, Node> workList;
+
+        /**
+         * Nodes of this component which are enqueued by other components.
+         */
+        private final Queue<Node> incoming = new ConcurrentLinkedQueue<>();
+
+        private Component(List<Node> nodes) {
+            workList = new ICFGWorkList<>(nodes);
+            workList.addAll();
+        }
+
+        private boolean hasPendingNodes() {
+            return !workList.isEmpty() || !incoming.isEmpty();
+        }
+
+        private void solve() {
+            Node pending;
+            while ((pending = incoming.poll()) != null) {
+                workList.add(pending);
+            }
+            while (!workList.isEmpty()) {
+                Node node = workList.poll();
+                if (compact != null) {
+                    solveCompact(node);
+                    continue;
+                }
+                Fact in = result.getInFact(node);
+                for (ICFGEdge<Node> inEdge : icfg.getInEdgesOf(node)) {
+                    Node pred = inEdge.getSource();
+                    analysis.meetInto(analysis.transferEdge(
+                            inEdge, result.getOutFact(pred)), in);
+                }
+                if (analysis.transferNode(node, in, result.getOutFact(node))) {
+                    for (ICFGEdge<Node> outEdge : icfg.getOutEdgesOf(node)) {
+                        enqueue(outEdge.getTarget());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Processes given node through the int-based APIs of {@link #compact}.
+         */
+        @SuppressWarnings("unchecked")
+        private void solveCompact(Node node) {
+            int id = compact.getId((Stmt) node);
+            Fact in = result.getInFact(node);
+            for (int i = compact.getInEdgeStart(id);
+                 i < compact.getInEdgeEnd(id); ++i) {
+                int edge = compact.getInEdge(i);
+                Node pred = (Node) compact.getStmt(compact.getSource(edge));
+                analysis.meetInto(analysis.transferEdge(compact, edge,
+                        result.getOutFact(pred)), in);
+            }
+            if (analysis.transferNode(node, in, result.getOutFact(node))) {
+                for (int edge = compact.getOutEdgeStart(id);
+                     edge < compact.getOutEdgeEnd(id); ++edge) {
+                    enqueue((Node) compact.getStmt(compact.getTarget(edge)));
+                }
+            }
+        }
+
+        private void enqueue(Node succ) {
+            Component component = components.get(succ);
+            if (component == this) {
+                workList.add(succ);
+            } else {
+                component.incoming.add(succ);
+            }
+        }
+    }
+}
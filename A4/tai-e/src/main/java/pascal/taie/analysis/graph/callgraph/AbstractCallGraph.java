@@ -45,20 +45,69 @@ import java.util.stream.Stream;
 public abstract class AbstractCallGraph<CallSite, Method>
         implements CallGraph<CallSite, Method> {
 
-    protected final MultiMap<CallSite, Edge<CallSite, Method>> callSiteToEdges = Maps.newMultiMap();
-    protected final MultiMap<Method, Edge<CallSite, Method>> calleeToEdges = Maps.newMultiMap();
-    protected final Map<CallSite, Method> callSiteToContainer = Maps.newMap();
-    protected final MultiMap<Method, CallSite> callSitesIn = Maps.newMultiMap(Sets::newHybridOrderedSet);
-    protected final Set<Method> entryMethods = Sets.newSet();
-    protected final Set<Method> reachableMethods = Sets.newSet();
+    /**
+     * Call edges indexed by call sites and by callees. Both are released
+     * (set to null) when this call graph is frozen.
+     * <p>
+     * All data structures below support concurrent insertions, so that
+     * subclasses can be modified by multiple threads without locking.
+     * The call sites of each method are added by a single thread
+     * (the one that makes the method reachable), thus they are kept
+     * in an ordered set which is not thread-safe.
+     */
+    protected MultiMap<CallSite, Edge<CallSite, Method>> callSiteToEdges =
+            new ConcurrentMultiMap<>(Sets::newConcurrentSet);
+    protected MultiMap<Method, Edge<CallSite, Method>> calleeToEdges =
+            new ConcurrentMultiMap<>(Sets::newConcurrentSet);
+    protected final Map<CallSite, Method> callSiteToContainer = Maps.newConcurrentMap();
+    protected final MultiMap<Method, CallSite> callSitesIn =
+            new ConcurrentMultiMap<>(Sets::newHybridOrderedSet);
+    protected final Set<Method> entryMethods = Sets.newConcurrentSet();
+    protected final Set<Method> reachableMethods = Sets.newConcurrentSet();
+
+    /**
+     * Compact representation of the call edges, which replaces
+     * {@link #callSiteToEdges} and {@link #calleeToEdges} once this call
+     * graph is frozen, or null if this call graph is not frozen.
+     */
+    private CompactCallEdges<CallSite, Method> compactEdges;
+
+    /**
+     * Freezes this call graph, after which the call edges are stored in
+     * compact arrays, and the call graph must not be modified anymore.
+     */
+    public void freeze() {
+        if (compactEdges == null) {
+            compactEdges = new CompactCallEdges<>(callSiteToEdges,
+                    () -> reachableMethods.stream()
+                            .flatMap(this::callSitesIn)
+                            .iterator());
+            // release the multimaps, as clearing them keeps their tables
+            callSiteToEdges = null;
+            calleeToEdges = null;
+        }
+    }
+
+    /**
+     * @return true if this call graph has been frozen.
+     */
+    public boolean isFrozen() {
+        return compactEdges != null;
+    }
 
     @Override
     public Set<CallSite> getCallersOf(Method callee) {
+        if (compactEdges != null) {
+            return compactEdges.getCallersOf(callee);
+        }
         return Views.toMappedSet(calleeToEdges.get(callee), Edge::getCallSite);
     }
 
     @Override
     public Set<Method> getCalleesOf(CallSite callSite) {
+        if (compactEdges != null) {
+            return compactEdges.getCalleesOf(callSite);
+        }
         return Views.toMappedSet(callSiteToEdges.get(callSite), Edge::getCallee);
     }
 
@@ -81,21 +130,33 @@ public abstract class AbstractCallGraph<CallSite, Method>
 
     @Override
     public Stream<Edge<CallSite, Method>> edgesOutOf(CallSite callSite) {
+        if (compactEdges != null) {
+            return compactEdges.edgesOutOf(callSite);
+        }
         return callSiteToEdges.get(callSite).stream();
     }
 
     @Override
     public Stream<Edge<CallSite, Method>> edgesInTo(Method method) {
+        if (compactEdges != null) {
+            return compactEdges.edgesInTo(method);
+        }
         return calleeToEdges.get(method).stream();
     }
 
     @Override
     public Stream<Edge<CallSite, Method>> edges() {
+        if (compactEdges != null) {
+            return compactEdges.edges();
+        }
         return callSiteToEdges.values().stream();
     }
 
     @Override
     public int getNumberOfEdges() {
+        if (compactEdges != null) {
+            return compactEdges.getNumberOfEdges();
+        }
         return callSiteToEdges.size();
     }
 
@@ -32,11 +32,10 @@ import java.util.*;
  */
 class CHABuilder implements CGBuilder<Invoke, JMethod> {
 
-    private ClassHierarchy hierarchy;
+    private final ClassHierarchy hierarchy = World.get().getClassHierarchy();
 
     @Override
     public CallGraph<Invoke, JMethod> build() {
-        hierarchy = World.get().getClassHierarchy();
         return buildCallGraph(World.get().getMainMethod());
     }
 
@@ -66,8 +65,9 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
 
     /**
      * Resolves call targets (callees) of a call site via CHA.
+     * This method is thread-safe.
      */
-    private Set<JMethod> resolve(Invoke callSite) {
+    Set<JMethod> resolve(Invoke callSite) {
         // TODO - finish me
         Set<JMethod>result = new LinkedHashSet<JMethod>();
 
@@ -81,20 +81,9 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
             result.add(dispatch(callSite.getMethodRef().getDeclaringClass(),callSite.getMethodRef().getSubsignature()));
         }
         else if (calltype == CallKind.VIRTUAL || calltype == CallKind.INTERFACE) {
-            JClass c = callSite.getMethodRef().getDeclaringClass();
-            Subsignature sig = callSite.getMethodRef().getSubsignature();
-            Queue<JClass> q = new ArrayDeque<JClass>();
-            q.add(c);
-            while (!q.isEmpty()){
-                JClass tempc = q.poll();
-                JMethod m = dispatch(tempc, sig);
-                if (m!=null){
-                    result.add(m);
-                }
-                q.addAll(hierarchy.getDirectSubclassesOf(tempc));
-                q.addAll(hierarchy.getDirectImplementorsOf(tempc));
-                q.addAll(hierarchy.getDirectSubinterfacesOf(tempc));
-            }
+            result.addAll(hierarchy.getDispatchTargets(
+                    callSite.getMethodRef().getDeclaringClass(),
+                    callSite.getMethodRef().getSubsignature()));
         }
 
         return result;
@@ -107,18 +96,6 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
      * can be found.
      */
     private JMethod dispatch(JClass jclass, Subsignature subsignature) {
-        // TODO - finish me
-        if (jclass == null){
-            return null;
-        }
-        JMethod m = jclass.getDeclaredMethod(subsignature);
-        if (m!=null){
-            // 如果jclass存在非抽象方法m'
-            if (!m.isAbstract()){
-                return m;
-            }
-        }
-        return dispatch(jclass.getSuperClass(), subsignature);
-//        return null;
+        return jclass == null ? null : hierarchy.dispatch(jclass, subsignature);
     }
 }
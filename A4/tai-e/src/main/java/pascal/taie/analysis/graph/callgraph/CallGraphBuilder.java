@@ -31,7 +31,9 @@ import pascal.taie.ir.IRPrinter;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.language.classes.ClassHierarchyImpl;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Threads;
 
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Comparator;
 
@@ -55,19 +57,45 @@ public class CallGraphBuilder extends ProgramAnalysis {
 
     @Override
     public CallGraph<Invoke, JMethod> analyze() {
+        String loadFile = getOptions().getString("load-binary");
+        if (loadFile != null) {
+            CallGraph<Invoke, JMethod> callGraph =
+                    CallGraphSerializer.read(Path.of(loadFile));
+            takeAction(callGraph);
+            return callGraph;
+        }
         CGBuilder<Invoke, JMethod> builder;
         if (algorithm.equals("cha")) {
-            builder = new CHABuilder();
+            int threads = Threads.getThreads(getOptions());
+            builder = threads > 1 ? new ParallelCHABuilder(threads) : new CHABuilder();
+        } else if (algorithm.equals("rta")) {
+            builder = new RTABuilder();
         } else {
             throw new ConfigException("Unknown call graph building algorithm: " + algorithm);
         }
         ClassHierarchyImpl.setCheckCHA(true);
         CallGraph<Invoke, JMethod> callGraph = builder.build();
         ClassHierarchyImpl.setCheckCHA(false);
+        String dumpFile = getOptions().getString("dump-binary");
+        if (dumpFile != null) {
+            CallGraphSerializer.write(callGraph, Path.of(dumpFile));
+        }
+        freezeIfCompact(callGraph);
         takeAction(callGraph);
         return callGraph;
     }
 
+    /**
+     * Freezes the call graph into compact arrays if the "compact"
+     * option is true.
+     */
+    private void freezeIfCompact(CallGraph<Invoke, JMethod> callGraph) {
+        if (getOptions().getBooleanOrDefault("compact", false) &&
+                callGraph instanceof AbstractCallGraph<Invoke, JMethod> cg) {
+            cg.freeze();
+        }
+    }
+
     private void takeAction(CallGraph<Invoke, JMethod> callGraph) {
         String action = getOptions().getString("action");
         if (action == null) {
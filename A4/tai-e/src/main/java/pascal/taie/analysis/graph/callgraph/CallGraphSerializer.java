@@ -0,0 +1,237 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.callgraph;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.StringReps;
+import pascal.taie.language.classes.Subsignature;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes call graphs to, and reads them from, a compact binary format,
+ * so that a call graph can be reused across runs on the same program.
+ * <p>
+ * Methods are identified by their signatures, and call sites by
+ * the indexes of the methods containing them together with their
+ * indexes in the IR, both of which are stable across runs.
+ * The format (all integers are big-endian) is:
+ * <pre>
+ * int     magic number and format version
+ * int     number of methods M
+ * M x     (int length, UTF-8 bytes) signatures of reachable methods
+ * int     number of entry methods E
+ * E x int indexes of entry methods
+ * int     number of edges N
+ * N x     (int caller, int call site, byte kind, int callee)
+ * </pre>
+ * The edge records have fixed width, and the file is memory-mapped
+ * when it is read.
+ */
+final class CallGraphSerializer {
+
+    private static final Logger logger = LogManager.getLogger(CallGraphSerializer.class);
+
+    /**
+     * "TCG" followed by the format version.
+     */
+    private static final int MAGIC = 0x54434701;
+
+    private static final CallKind[] KINDS = CallKind.values();
+
+    /**
+     * Size in bytes of an edge record.
+     */
+    private static final int EDGE_SIZE = 4 + 4 + 1 + 4;
+
+    private CallGraphSerializer() {
+    }
+
+    /**
+     * Writes given call graph to the file at given path.
+     */
+    static void write(CallGraph<Invoke, JMethod> callGraph, Path path) {
+        logger.info("Writing call graph to {} ...", path);
+        // sort methods by signature to make the file deterministic
+        List<JMethod> methods = callGraph.reachableMethods()
+                .sorted(Comparator.comparing(JMethod::getSignature))
+                .toList();
+        Map<JMethod, Integer> ids = Maps.newMap(methods.size());
+        methods.forEach(m -> ids.put(m, ids.size()));
+        List<Edge<Invoke, JMethod>> edges = callGraph.edges()
+                .sorted(Comparator.comparing((Edge<Invoke, JMethod> e) ->
+                                ids.get(e.getCallSite().getContainer()))
+                        .thenComparing(e -> e.getCallSite().getIndex())
+                        .thenComparing(e -> ids.get(e.getCallee())))
+                .toList();
+        try (OutputStream os = Files.newOutputStream(path);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+            out.writeInt(MAGIC);
+            out.writeInt(methods.size());
+            for (JMethod method : methods) {
+                byte[] signature = method.getSignature().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(signature.length);
+                out.write(signature);
+            }
+            List<JMethod> entries = callGraph.entryMethods().toList();
+            out.writeInt(entries.size());
+            for (JMethod entry : entries) {
+                out.writeInt(ids.get(entry));
+            }
+            out.writeInt(edges.size());
+            for (Edge<Invoke, JMethod> edge : edges) {
+                Invoke callSite = edge.getCallSite();
+                out.writeInt(ids.get(callSite.getContainer()));
+                out.writeInt(callSite.getIndex());
+                out.writeByte(edge.getKind().ordinal());
+                out.writeInt(ids.get(edge.getCallee()));
+            }
+        } catch (IOException e) {
+            throw new AnalysisException("Failed to write call graph to " + path, e);
+        }
+    }
+
+    /**
+     * Reads a call graph from the file at given path. The methods in the
+     * file are resolved in the current {@link World}, while the call sites
+     * are resolved lazily (see {@link LoadedCallGraph}), so that reading
+     * the call graph does not build any IR.
+     *
+     * @return a read-only call graph.
+     * @throws AnalysisException if the file is malformed or its methods
+     *                           do not match the program being analyzed.
+     */
+    static CallGraph<Invoke, JMethod> read(Path path) {
+        logger.info("Reading call graph from {} ...", path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                throw new AnalysisException(path + " is not a call graph file" +
+                        " of the supported version");
+            }
+            ClassHierarchy hierarchy = World.get().getClassHierarchy();
+            // each signature takes at least 4 bytes for its length
+            JMethod[] methods = new JMethod[readCount(buffer, 4, path)];
+            for (int i = 0; i < methods.length; ++i) {
+                methods[i] = resolveMethod(hierarchy, readString(buffer, path));
+            }
+            List<JMethod> entries = new ArrayList<>();
+            for (int i = readCount(buffer, 4, path); i > 0; --i) {
+                entries.add(methods[readIndex(buffer, methods.length, path)]);
+            }
+            int nEdges = readCount(buffer, EDGE_SIZE, path);
+            int[] callers = new int[nEdges];
+            int[] indexes = new int[nEdges];
+            byte[] kinds = new byte[nEdges];
+            int[] callees = new int[nEdges];
+            for (int e = 0; e < nEdges; ++e) {
+                callers[e] = readIndex(buffer, methods.length, path);
+                indexes[e] = readIndex(buffer, Integer.MAX_VALUE, path);
+                kinds[e] = (byte) readIndex(buffer.get(), KINDS.length, path);
+                callees[e] = readIndex(buffer, methods.length, path);
+            }
+            CallGraph<Invoke, JMethod> callGraph;
+            try {
+                callGraph = new LoadedCallGraph(
+                        methods, entries, callers, indexes, kinds, callees);
+            } catch (AnalysisException e) {
+                throw new AnalysisException(path + " is corrupt", e);
+            }
+            return callGraph;
+        } catch (BufferUnderflowException e) {
+            throw new AnalysisException(path + " is truncated", e);
+        } catch (IOException e) {
+            throw new AnalysisException("Failed to read call graph from " + path, e);
+        }
+    }
+
+    /**
+     * Reads the number of the following records, each of which
+     * takes at least {@code recordSize} bytes.
+     *
+     * @throws AnalysisException if the number is negative or
+     *                           exceeds the remaining bytes.
+     */
+    private static int readCount(ByteBuffer buffer, int recordSize, Path path) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / recordSize) {
+            throw new AnalysisException(path + " is corrupt: invalid count " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Reads an index which must be in [0, {@code bound}).
+     */
+    private static int readIndex(ByteBuffer buffer, int bound, Path path) {
+        return readIndex(buffer.getInt(), bound, path);
+    }
+
+    private static int readIndex(int index, int bound, Path path) {
+        if (index < 0 || index >= bound) {
+            throw new AnalysisException(path + " is corrupt: index " + index +
+                    " is out of bounds [0, " + bound + ")");
+        }
+        return index;
+    }
+
+    private static String readString(ByteBuffer buffer, Path path) {
+        byte[] bytes = new byte[readCount(buffer, 1, path)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static JMethod resolveMethod(ClassHierarchy hierarchy, String signature) {
+        JClass jclass = hierarchy.getClass(StringReps.getClassNameOf(signature));
+        JMethod method = jclass == null ? null : jclass.getDeclaredMethod(
+                Subsignature.get(StringReps.getSubsignatureOf(signature)));
+        if (method == null) {
+            throw new AnalysisException("Method " + signature +
+                    " in call graph file does not match the program");
+        }
+        return method;
+    }
+}
@@ -24,6 +24,7 @@ package pascal.taie.analysis.graph.callgraph;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
 import pascal.taie.config.Configs;
 import pascal.taie.ir.IRPrinter;
 import pascal.taie.ir.exp.InvokeDynamic;
@@ -32,13 +33,20 @@ import pascal.taie.ir.exp.InvokeInterface;
 import pascal.taie.ir.exp.InvokeSpecial;
 import pascal.taie.ir.exp.InvokeStatic;
 import pascal.taie.ir.exp.InvokeVirtual;
+import pascal.taie.ir.proginfo.MethodRef;
 import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.Type;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.IDProvider;
 import pascal.taie.util.MapIDProvider;
 import pascal.taie.util.graph.DotDumper;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -73,6 +81,37 @@ public final class CallGraphs {
         return getCallKind(invoke.getInvokeExp());
     }
 
+    /**
+     * Resolves the callee of a call site whose receiver object is of
+     * given type. The receiver type is ignored for static and special
+     * calls, and for array receivers the call is dispatched on
+     * {@code java.lang.Object}.
+     *
+     * @return the resolved callee, or null if it cannot be resolved.
+     */
+    @Nullable
+    public static JMethod resolveCallee(Type type, Invoke callSite) {
+        MethodRef methodRef = callSite.getMethodRef();
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        switch (getCallKind(callSite)) {
+            case STATIC:
+                return methodRef.getDeclaringClass()
+                        .getDeclaredMethod(methodRef.getSubsignature());
+            case SPECIAL:
+                return hierarchy.dispatch(methodRef.getDeclaringClass(),
+                        methodRef.getSubsignature());
+            case VIRTUAL:
+            case INTERFACE:
+                JClass receiverClass = type instanceof ClassType ?
+                        ((ClassType) type).getJClass() :
+                        hierarchy.getJREClass(ClassNames.OBJECT);
+                return receiverClass == null ? null :
+                        hierarchy.dispatch(receiverClass, methodRef.getSubsignature());
+            default:
+                return null;
+        }
+    }
+
     /**
      * Dumps call graph to dot file.
      */
@@ -0,0 +1,224 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Frozen call edges in compressed sparse row (CSR) form.
+ * <p>
+ * Call sites and methods are assigned dense int IDs. The edges out of
+ * call site {@code c} are the edges in [outOffsets[c], outOffsets[c + 1]),
+ * whose callees and kinds are stored in parallel arrays. The edges into
+ * each method are indexed by another CSR array of edge IDs. The sets and
+ * {@link Edge} objects required by {@link CallGraph} APIs are lightweight
+ * views created on demand.
+ *
+ * @param <CallSite> type of call sites
+ * @param <Method>   type of methods
+ */
+class CompactCallEdges<CallSite, Method> {
+
+    private static final CallKind[] KINDS = CallKind.values();
+
+    private final Map<CallSite, Integer> callSiteIds = Maps.newMap();
+
+    private final List<CallSite> callSites = new ArrayList<>();
+
+    private final Map<Method, Integer> methodIds = Maps.newMap();
+
+    private final List<Method> methods = new ArrayList<>();
+
+    private final int[] outOffsets;
+
+    /**
+     * Source call site of each edge.
+     */
+    private final int[] sources;
+
+    /**
+     * Callee of each edge.
+     */
+    private final int[] callees;
+
+    /**
+     * Ordinal of {@link CallKind} of each edge.
+     */
+    private final byte[] kinds;
+
+    private final int[] inOffsets;
+
+    /**
+     * IDs of the edges into each method.
+     */
+    private final int[] inEdges;
+
+    /**
+     * Builds compact edges from the given edges. The call sites in
+     * {@code callSitesInOrder} are numbered first to keep the out edges
+     * of the call sites in the same method close to each other.
+     */
+    CompactCallEdges(MultiMap<CallSite, Edge<CallSite, Method>> callSiteToEdges,
+                     Iterable<CallSite> callSitesInOrder) {
+        callSitesInOrder.forEach(this::getOrAddCallSite);
+        callSiteToEdges.keySet().forEach(this::getOrAddCallSite);
+        int nEdges = callSiteToEdges.size();
+        outOffsets = new int[callSites.size() + 1];
+        sources = new int[nEdges];
+        callees = new int[nEdges];
+        kinds = new byte[nEdges];
+        int e = 0;
+        for (int c = 0; c < callSites.size(); ++c) {
+            outOffsets[c] = e;
+            for (Edge<CallSite, Method> edge : callSiteToEdges.get(callSites.get(c))) {
+                sources[e] = c;
+                callees[e] = getOrAddMethod(edge.getCallee());
+                kinds[e] = (byte) edge.getKind().ordinal();
+                ++e;
+            }
+        }
+        outOffsets[callSites.size()] = e;
+        // build in edges by counting sort on callees
+        inOffsets = new int[methods.size() + 1];
+        for (int callee : callees) {
+            ++inOffsets[callee + 1];
+        }
+        for (int m = 0; m < methods.size(); ++m) {
+            inOffsets[m + 1] += inOffsets[m];
+        }
+        inEdges = new int[nEdges];
+        int[] next = inOffsets.clone();
+        for (e = 0; e < nEdges; ++e) {
+            inEdges[next[callees[e]]++] = e;
+        }
+    }
+
+    private int getOrAddCallSite(CallSite callSite) {
+        return callSiteIds.computeIfAbsent(callSite, cs -> {
+            callSites.add(cs);
+            return callSites.size() - 1;
+        });
+    }
+
+    private int getOrAddMethod(Method method) {
+        return methodIds.computeIfAbsent(method, m -> {
+            methods.add(m);
+            return methods.size() - 1;
+        });
+    }
+
+    private Edge<CallSite, Method> getEdge(int e) {
+        return new Edge<>(KINDS[kinds[e]],
+                callSites.get(sources[e]), methods.get(callees[e]));
+    }
+
+    Set<CallSite> getCallersOf(Method callee) {
+        Integer m = methodIds.get(callee);
+        return m == null ? Set.of() : new RangeSet<>(inOffsets[m],
+                inOffsets[m + 1], i -> callSites.get(sources[inEdges[i]]));
+    }
+
+    Set<Method> getCalleesOf(CallSite callSite) {
+        Integer c = callSiteIds.get(callSite);
+        return c == null ? Set.of() : new RangeSet<>(outOffsets[c],
+                outOffsets[c + 1], i -> methods.get(callees[i]));
+    }
+
+    Stream<Edge<CallSite, Method>> edgesOutOf(CallSite callSite) {
+        Integer c = callSiteIds.get(callSite);
+        return c == null ? Stream.of() :
+                IntStream.range(outOffsets[c], outOffsets[c + 1])
+                        .mapToObj(this::getEdge);
+    }
+
+    Stream<Edge<CallSite, Method>> edgesInTo(Method method) {
+        Integer m = methodIds.get(method);
+        return m == null ? Stream.of() :
+                IntStream.range(inOffsets[m], inOffsets[m + 1])
+                        .mapToObj(i -> getEdge(inEdges[i]));
+    }
+
+    Stream<Edge<CallSite, Method>> edges() {
+        return IntStream.range(0, callees.length).mapToObj(this::getEdge);
+    }
+
+    int getNumberOfEdges() {
+        return callees.length;
+    }
+
+    /**
+     * Unmodifiable set view of the elements mapped from
+     * a range of indexes, which are distinct.
+     */
+    static class RangeSet<E> extends AbstractSet<E> {
+
+        private final int start;
+
+        private final int end;
+
+        private final IntFunction<E> mapper;
+
+        RangeSet(int start, int end, IntFunction<E> mapper) {
+            this.start = start;
+            this.end = end;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<>() {
+
+                private int i = start;
+
+                @Override
+                public boolean hasNext() {
+                    return i < end;
+                }
+
+                @Override
+                public E next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return mapper.apply(i++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.util.collection.MapSetMultiMap;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Multimap that supports concurrent insertions, so that call graphs can
+ * be built by multiple threads without locking. The sets of keys are
+ * created atomically by the underlying concurrent map, and the number
+ * of entries is counted atomically. Removals are not supported,
+ * as call graphs only grow.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+class ConcurrentMultiMap<K, V> extends MapSetMultiMap<K, V> {
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * @param setFactory creates the sets of values, which must be
+     *                   thread-safe if the values of a key may be
+     *                   added by multiple threads.
+     */
+    ConcurrentMultiMap(Supplier<Set<V>> setFactory) {
+        super(Maps.newConcurrentMap(), setFactory);
+    }
+
+    @Override
+    public boolean put(K key, V value) {
+        if (super.put(key, value)) {
+            size.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean putAll(K key, Collection<? extends V> values) {
+        boolean changed = false;
+        for (V value : values) {
+            changed |= put(key, value);
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean remove(K key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(K key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(K key, Collection<? extends V> values) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+}
@@ -25,11 +25,24 @@ package pascal.taie.analysis.graph.callgraph;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
 
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Default implementation of call graph.
+ * The methods that modify the call graph are lock-free, as they only
+ * insert into the concurrent data structures of {@link AbstractCallGraph},
+ * so that it can be built by multiple threads. A method is made reachable
+ * by exactly one call of {@link #addReachableMethod(JMethod)}, which
+ * returns true only to the thread that wins the insertion.
+ * <p>
+ * This call graph does not pin the IR of reachable methods, thus the IR
+ * may be evicted by the IR cache and rebuilt with new statements (see
+ * {@link JMethod#getIR()}). Call sites are therefore identified by their
+ * containers and indexes: the queries on a call site of the rebuilt IR
+ * are answered with the call site recorded for the same position.
  */
 public class DefaultCallGraph extends AbstractCallGraph<Invoke, JMethod> {
 
@@ -47,6 +60,7 @@ public class DefaultCallGraph extends AbstractCallGraph<Invoke, JMethod> {
      * otherwise false.
      */
     public boolean addReachableMethod(JMethod method) {
+        checkNotFrozen();
         if (reachableMethods.add(method)) {
             if (!method.isAbstract()) {
                 method.getIR().forEach(stmt -> {
@@ -69,6 +83,7 @@ public class DefaultCallGraph extends AbstractCallGraph<Invoke, JMethod> {
      * otherwise false.
      */
     public boolean addEdge(Edge<Invoke, JMethod> edge) {
+        checkNotFrozen();
         if (callSiteToEdges.put(edge.getCallSite(), edge)) {
             calleeToEdges.put(edge.getCallee(), edge);
             return true;
@@ -77,11 +92,45 @@ public class DefaultCallGraph extends AbstractCallGraph<Invoke, JMethod> {
         }
     }
 
+    private void checkNotFrozen() {
+        if (isFrozen()) {
+            throw new AnalysisException("Cannot modify a frozen call graph");
+        }
+    }
+
     @Override
     public JMethod getContainerOf(Invoke invoke) {
         return invoke.getContainer();
     }
 
+    @Override
+    public Set<JMethod> getCalleesOf(Invoke callSite) {
+        return super.getCalleesOf(getRecordedCallSite(callSite));
+    }
+
+    @Override
+    public Stream<Edge<Invoke, JMethod>> edgesOutOf(Invoke callSite) {
+        return super.edgesOutOf(getRecordedCallSite(callSite));
+    }
+
+    /**
+     * @return the call site recorded by this call graph at the same index
+     * of the same method as given call site, or given call site itself
+     * if there is no such call site.
+     */
+    private Invoke getRecordedCallSite(Invoke callSite) {
+        if (callSiteToContainer.containsKey(callSite)) {
+            return callSite;
+        }
+        int index = callSite.getIndex();
+        for (Invoke recorded : callSitesIn.get(callSite.getContainer())) {
+            if (recorded.getIndex() == index) {
+                return recorded;
+            }
+        }
+        return callSite;
+    }
+
     @Override
     public boolean isRelevant(Stmt stmt) {
         return stmt instanceof Invoke;
@@ -0,0 +1,348 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Read-only call graph loaded by {@link CallGraphSerializer}.
+ * <p>
+ * The edges are kept in the compact form of the call graph file: the
+ * edges are sorted by their callers and the indexes of their call sites,
+ * so that the edges out of each method form a range of the edge arrays,
+ * and the edges into each method are indexed by a CSR array of edge IDs.
+ * Loading this call graph neither builds nor pins IR. A call site is
+ * only resolved in the IR of its container when a query has to return
+ * it, and the queries on a given call site are answered by its container
+ * and index, so that they also work on the IR rebuilt after eviction.
+ */
+final class LoadedCallGraph implements CallGraph<Invoke, JMethod> {
+
+    private static final CallKind[] KINDS = CallKind.values();
+
+    private final JMethod[] methods;
+
+    private final Map<JMethod, Integer> methodIds;
+
+    private final List<JMethod> entryMethods;
+
+    /**
+     * The edges out of method {@code m} are the edges in
+     * [outOffsets[m], outOffsets[m + 1]).
+     */
+    private final int[] outOffsets;
+
+    /**
+     * Index of the call site in the IR of its container of each edge.
+     */
+    private final int[] indexes;
+
+    /**
+     * Ordinal of {@link CallKind} of each edge.
+     */
+    private final byte[] kinds;
+
+    /**
+     * Callee of each edge.
+     */
+    private final int[] callees;
+
+    private final int[] inOffsets;
+
+    /**
+     * IDs of the edges into each method.
+     */
+    private final int[] inEdges;
+
+    /**
+     * Caller of each edge, which is only used to answer the queries
+     * on the edges into a method.
+     */
+    private final int[] callers;
+
+    /**
+     * @param methods      the reachable methods
+     * @param entryMethods the entry methods
+     * @param callers      caller of each edge
+     * @param indexes      index of the call site of each edge
+     * @param kinds        ordinal of call kind of each edge
+     * @param callees      callee of each edge
+     * @throws AnalysisException if the edges are not sorted by their
+     *                           callers and the indexes of their call sites.
+     */
+    LoadedCallGraph(JMethod[] methods, List<JMethod> entryMethods,
+                    int[] callers, int[] indexes, byte[] kinds, int[] callees) {
+        this.methods = methods;
+        this.methodIds = Maps.newMap(methods.length);
+        for (JMethod method : methods) {
+            methodIds.put(method, methodIds.size());
+        }
+        this.entryMethods = List.copyOf(entryMethods);
+        this.callers = callers;
+        this.indexes = indexes;
+        this.kinds = kinds;
+        this.callees = callees;
+        int nEdges = callees.length;
+        outOffsets = new int[methods.length + 1];
+        for (int e = 0; e < nEdges; ++e) {
+            if (e > 0 && (callers[e] < callers[e - 1] ||
+                    callers[e] == callers[e - 1] && indexes[e] < indexes[e - 1])) {
+                throw new AnalysisException("Call edges are not sorted by call sites");
+            }
+            ++outOffsets[callers[e] + 1];
+        }
+        // build in edges by counting sort on callees
+        inOffsets = new int[methods.length + 1];
+        for (int callee : callees) {
+            ++inOffsets[callee + 1];
+        }
+        for (int m = 0; m < methods.length; ++m) {
+            outOffsets[m + 1] += outOffsets[m];
+            inOffsets[m + 1] += inOffsets[m];
+        }
+        inEdges = new int[nEdges];
+        int[] next = inOffsets.clone();
+        for (int e = 0; e < nEdges; ++e) {
+            inEdges[next[callees[e]]++] = e;
+        }
+    }
+
+    /**
+     * Resolves the call site of given edge in the current IR of its caller.
+     *
+     * @throws AnalysisException if the call site does not match the program.
+     */
+    private Invoke getCallSite(int e) {
+        JMethod caller = methods[callers[e]];
+        int index = indexes[e];
+        Stmt stmt = !caller.isAbstract() &&
+                index < caller.getIR().getStmts().size() ?
+                caller.getIR().getStmt(index) : null;
+        if (!(stmt instanceof Invoke invoke)) {
+            throw new AnalysisException("Call site " + caller + "[" + index +
+                    "] in call graph file does not match the program");
+        }
+        return invoke;
+    }
+
+    private Edge<Invoke, JMethod> getEdge(int e) {
+        return new Edge<>(KINDS[kinds[e]], getCallSite(e), methods[callees[e]]);
+    }
+
+    /**
+     * @return the range [start, end) of the edges out of given call site,
+     * which is empty if the call site has no edges.
+     */
+    private int[] getOutRange(Invoke callSite) {
+        Integer m = methodIds.get(callSite.getContainer());
+        if (m == null) {
+            return new int[]{ 0, 0 };
+        }
+        int index = callSite.getIndex();
+        int start = lowerBound(outOffsets[m], outOffsets[m + 1], index);
+        int end = lowerBound(start, outOffsets[m + 1], index + 1);
+        return new int[]{ start, end };
+    }
+
+    /**
+     * @return the first edge in [from, to) whose call site index is not
+     * less than given index, or {@code to} if there is no such edge.
+     */
+    private int lowerBound(int from, int to, int index) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (indexes[mid] < index) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    private IntStream outEdgesOf(JMethod method) {
+        Integer m = methodIds.get(method);
+        return m == null ? IntStream.empty() :
+                IntStream.range(outOffsets[m], outOffsets[m + 1]);
+    }
+
+    private IntStream inEdgesOf(JMethod method) {
+        Integer m = methodIds.get(method);
+        return m == null ? IntStream.empty() :
+                IntStream.range(inOffsets[m], inOffsets[m + 1]).map(i -> inEdges[i]);
+    }
+
+    @Override
+    public Set<Invoke> getCallersOf(JMethod callee) {
+        Integer m = methodIds.get(callee);
+        return m == null ? Set.of() : new CompactCallEdges.RangeSet<>(
+                inOffsets[m], inOffsets[m + 1], i -> getCallSite(inEdges[i]));
+    }
+
+    @Override
+    public Set<JMethod> getCalleesOf(Invoke callSite) {
+        int[] range = getOutRange(callSite);
+        return new CompactCallEdges.RangeSet<>(
+                range[0], range[1], e -> methods[callees[e]]);
+    }
+
+    @Override
+    public Set<JMethod> getCalleesOfM(JMethod caller) {
+        return getSuccsOf(caller);
+    }
+
+    @Override
+    public JMethod getContainerOf(Invoke callSite) {
+        return callSite.getContainer();
+    }
+
+    @Override
+    public Set<Invoke> getCallSitesIn(JMethod method) {
+        Set<Invoke> callSites = Sets.newHybridOrderedSet();
+        callSitesIn(method).forEach(callSites::add);
+        return Collections.unmodifiableSet(callSites);
+    }
+
+    @Override
+    public Stream<Invoke> callSitesIn(JMethod method) {
+        if (!contains(method) || method.isAbstract()) {
+            return Stream.of();
+        }
+        return method.getIR().stmts()
+                .filter(s -> s instanceof Invoke)
+                .map(s -> (Invoke) s);
+    }
+
+    @Override
+    public Stream<Edge<Invoke, JMethod>> edgesOutOf(Invoke callSite) {
+        int[] range = getOutRange(callSite);
+        return IntStream.range(range[0], range[1]).mapToObj(e ->
+                new Edge<>(KINDS[kinds[e]], callSite, methods[callees[e]]));
+    }
+
+    @Override
+    public Stream<Edge<Invoke, JMethod>> edgesInTo(JMethod method) {
+        return inEdgesOf(method).mapToObj(this::getEdge);
+    }
+
+    @Override
+    public Stream<Edge<Invoke, JMethod>> edges() {
+        return IntStream.range(0, callees.length).mapToObj(this::getEdge);
+    }
+
+    @Override
+    public int getNumberOfEdges() {
+        return callees.length;
+    }
+
+    @Override
+    public Stream<JMethod> entryMethods() {
+        return entryMethods.stream();
+    }
+
+    @Override
+    public Stream<JMethod> reachableMethods() {
+        return Arrays.stream(methods);
+    }
+
+    @Override
+    public int getNumberOfMethods() {
+        return methods.length;
+    }
+
+    @Override
+    public boolean contains(JMethod method) {
+        return methodIds.containsKey(method);
+    }
+
+    // Implementation for Graph interface.
+
+    @Override
+    public boolean hasNode(JMethod node) {
+        return contains(node);
+    }
+
+    @Override
+    public boolean hasEdge(JMethod source, JMethod target) {
+        return outEdgesOf(source).anyMatch(e -> methods[callees[e]].equals(target));
+    }
+
+    @Override
+    public Set<MethodEdge<Invoke, JMethod>> getInEdgesOf(JMethod method) {
+        return inEdgesOf(method)
+                .mapToObj(e -> new MethodEdge<>(
+                        methods[callers[e]], method, getCallSite(e)))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Set<MethodEdge<Invoke, JMethod>> getOutEdgesOf(JMethod method) {
+        return outEdgesOf(method)
+                .mapToObj(e -> new MethodEdge<>(
+                        method, methods[callees[e]], getCallSite(e)))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Set<JMethod> getPredsOf(JMethod node) {
+        return inEdgesOf(node)
+                .mapToObj(e -> methods[callers[e]])
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Set<JMethod> getSuccsOf(JMethod node) {
+        return outEdgesOf(node)
+                .mapToObj(e -> methods[callees[e]])
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Set<JMethod> getNodes() {
+        return Collections.unmodifiableSet(methodIds.keySet());
+    }
+
+    @Override
+    public boolean isRelevant(Stmt stmt) {
+        return stmt instanceof Invoke;
+    }
+
+    @Override
+    public Set<JMethod> getResult(Stmt stmt) {
+        return getCalleesOf((Invoke) stmt);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.World;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Builds the same call graph as {@link CHABuilder} with multiple threads.
+ * <p>
+ * Each reachable method is claimed by exactly one task via a concurrent
+ * set, and the task builds its IR, resolves its call sites and forks
+ * new tasks for the callees it claims. Thus the IR of different methods
+ * is built and resolved in parallel. The call graph itself is
+ * a {@link DefaultCallGraph}, whose modifications are lock-free.
+ */
+class ParallelCHABuilder implements CGBuilder<Invoke, JMethod> {
+
+    private final int threads;
+
+    private final CHABuilder resolver = new CHABuilder();
+
+    private final DefaultCallGraph callGraph = new DefaultCallGraph();
+
+    /**
+     * Methods that have been claimed by the tasks.
+     */
+    private final Set<JMethod> claimed = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The first exception thrown by the tasks, which is rethrown
+     * after all tasks finish.
+     */
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    ParallelCHABuilder(int threads) {
+        this.threads = threads;
+    }
+
+    @Override
+    public CallGraph<Invoke, JMethod> build() {
+        JMethod entry = World.get().getMainMethod();
+        callGraph.addEntryMethod(entry);
+        claimed.add(entry);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.execute(() -> process(entry));
+            pool.awaitQuiescence(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } finally {
+            pool.shutdown();
+        }
+        if (failure.get() != null) {
+            throw new AnalysisException(
+                    "Failed to build call graph in parallel", failure.get());
+        }
+        return callGraph;
+    }
+
+    private void process(JMethod method) {
+        try {
+            // the call sites are recorded by the call graph when the method
+            // becomes reachable, and they are resolved below
+            callGraph.addReachableMethod(method);
+            callGraph.callSitesIn(method).forEach(callSite -> {
+                for (JMethod callee : resolver.resolve(callSite)) {
+                    callGraph.addEdge(new Edge<>(
+                            CallGraphs.getCallKind(callSite), callSite, callee));
+                    if (claimed.add(callee)) {
+                        ForkJoinTask.adapt(() -> process(callee)).fork();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.World;
+import pascal.taie.ir.exp.ClassLiteral;
+import pascal.taie.ir.exp.NewInstance;
+import pascal.taie.ir.exp.StringLiteral;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Implementation of the RTA (Rapid Type Analysis) algorithm.
+ * <p>
+ * Different from CHA, RTA only resolves virtual calls against the classes
+ * that are instantiated by {@link New} statements in reachable methods.
+ * String and class literals instantiate {@code java.lang.String} and
+ * {@code java.lang.Class} respectively.
+ * As new classes become instantiated, the virtual call sites found so far
+ * are resolved again against them.
+ */
+class RTABuilder implements CGBuilder<Invoke, JMethod> {
+
+    private ClassHierarchy hierarchy;
+
+    private DefaultCallGraph callGraph;
+
+    private Queue<JMethod> workList;
+
+    /**
+     * Classes instantiated in reachable methods.
+     */
+    private Set<JClass> instantiatedClasses;
+
+    /**
+     * Reachable virtual and interface call sites, keyed by the declaring
+     * class of their method references.
+     */
+    private MultiMap<JClass, Invoke> virtualCallSites;
+
+    @Override
+    public CallGraph<Invoke, JMethod> build() {
+        hierarchy = World.get().getClassHierarchy();
+        callGraph = new DefaultCallGraph();
+        workList = new ArrayDeque<>();
+        instantiatedClasses = Sets.newSet();
+        virtualCallSites = Maps.newMultiMap();
+        JMethod entry = World.get().getMainMethod();
+        callGraph.addEntryMethod(entry);
+        workList.add(entry);
+        while (!workList.isEmpty()) {
+            JMethod method = workList.poll();
+            if (callGraph.addReachableMethod(method)) {
+                processNewMethod(method);
+            }
+        }
+        return callGraph;
+    }
+
+    private void processNewMethod(JMethod method) {
+        if (method.isAbstract()) {
+            return;
+        }
+        // process the instantiations first, so that the call sites
+        // in the same method can be resolved against them
+        method.getIR().forEach(stmt -> {
+            if (stmt instanceof New newStmt) {
+                if (newStmt.getRValue() instanceof NewInstance newInstance) {
+                    addInstantiatedClass(newInstance.getType().getJClass());
+                } else { // arrays dispatch methods on java.lang.Object
+                    addInstantiatedClass(hierarchy.getJREClass(ClassNames.OBJECT));
+                }
+            } else if (stmt instanceof AssignLiteral assign) {
+                if (assign.getRValue() instanceof StringLiteral) {
+                    addInstantiatedClass(hierarchy.getJREClass(ClassNames.STRING));
+                } else if (assign.getRValue() instanceof ClassLiteral) {
+                    addInstantiatedClass(hierarchy.getJREClass(ClassNames.CLASS));
+                }
+            }
+        });
+        callGraph.callSitesIn(method).forEach(callSite -> {
+            CallKind kind = CallGraphs.getCallKind(callSite);
+            if (kind == CallKind.VIRTUAL || kind == CallKind.INTERFACE) {
+                JClass declaringClass = callSite.getMethodRef().getDeclaringClass();
+                virtualCallSites.put(declaringClass, callSite);
+                // iterate the smaller one of the subclasses of declaring class
+                // and the instantiated classes to find the receiver classes
+                Collection<JClass> subclasses = hierarchy.getAllSubclassesOf(declaringClass);
+                if (subclasses.size() <= instantiatedClasses.size()) {
+                    subclasses.stream()
+                            .filter(instantiatedClasses::contains)
+                            .forEach(c -> addCallEdge(callSite,
+                                    CallGraphs.resolveCallee(c.getType(), callSite)));
+                } else {
+                    instantiatedClasses.stream()
+                            .filter(c -> hierarchy.isSubtype(declaringClass, c))
+                            .forEach(c -> addCallEdge(callSite,
+                                    CallGraphs.resolveCallee(c.getType(), callSite)));
+                }
+            } else {
+                addCallEdge(callSite, CallGraphs.resolveCallee(null, callSite));
+            }
+        });
+    }
+
+    /**
+     * Marks given class as instantiated, and resolves the call sites
+     * found so far whose declaring classes are supertypes of it.
+     */
+    private void addInstantiatedClass(JClass jclass) {
+        if (jclass == null || !instantiatedClasses.add(jclass)) {
+            return;
+        }
+        Set<JClass> visited = Sets.newHybridSet();
+        Queue<JClass> supertypes = new ArrayDeque<>();
+        supertypes.add(jclass);
+        while (!supertypes.isEmpty()) {
+            JClass supertype = supertypes.poll();
+            if (visited.add(supertype)) {
+                virtualCallSites.get(supertype).forEach(callSite ->
+                        addCallEdge(callSite,
+                                CallGraphs.resolveCallee(jclass.getType(), callSite)));
+                if (supertype.getSuperClass() != null) {
+                    supertypes.add(supertype.getSuperClass());
+                }
+                supertypes.addAll(supertype.getInterfaces());
+            }
+        }
+    }
+
+    private void addCallEdge(Invoke callSite, JMethod callee) {
+        if (callee != null && callGraph.addEdge(new Edge<>(
+                CallGraphs.getCallKind(callSite), callSite, callee))) {
+            workList.add(callee);
+        }
+    }
+}
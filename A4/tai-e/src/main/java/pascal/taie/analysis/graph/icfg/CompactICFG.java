@@ -0,0 +1,595 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.icfg;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A frozen ICFG in compressed sparse row (CSR) form.
+ * <p>
+ * Each statement is assigned a dense int ID, and the statements of each
+ * method occupy a contiguous range of IDs. The edges are identified by
+ * ints as well: the out edges of node {@code n} are the edges
+ * in [{@link #getOutEdgeStart(int)}, {@link #getOutEdgeEnd(int)}), and
+ * the source, target and kind of each edge are stored in parallel arrays.
+ * The in edges are indexed by another CSR array of edge IDs. Clients
+ * can traverse the graph through the int-based APIs without allocation;
+ * the {@link ICFGEdge} objects required by {@link ICFG} APIs are not
+ * stored, but created on demand from the arrays. The IDs of statements
+ * are looked up in an open-addressing identity table.
+ * <p>
+ * This ICFG contains the same nodes and edges as {@link DefaultICFG}.
+ */
+public class CompactICFG extends AbstractICFG<JMethod, Stmt> {
+
+    private static final Logger logger = LogManager.getLogger(CompactICFG.class);
+
+    public static final byte NORMAL = 0;
+
+    public static final byte CALL_TO_RETURN = 1;
+
+    public static final byte CALL = 2;
+
+    public static final byte RETURN = 3;
+
+    // ---------- nodes ----------
+    private final List<Stmt> stmts = new ArrayList<>();
+
+    /**
+     * Open-addressing (linear probing) table of statements by identity,
+     * whose IDs are in {@link #idValues} at the same slots.
+     */
+    private Stmt[] idKeys;
+
+    private int[] idValues;
+
+    /**
+     * Index of the containing method of each node.
+     */
+    private int[] methodIndexes;
+
+    // ---------- methods ----------
+    private final Map<JMethod, Integer> methodIndexMap = Maps.newMap();
+
+    private final List<JMethod> methods = new ArrayList<>();
+
+    private final List<CFG<Stmt>> cfgs = new ArrayList<>();
+
+    private final List<Collection<Var>> returnVars = new ArrayList<>();
+
+    private final List<Collection<ClassType>> exceptions = new ArrayList<>();
+
+    // ---------- edges ----------
+    private int[] outOffsets;
+
+    private int[] sources;
+
+    private int[] targets;
+
+    private byte[] kinds;
+
+    /**
+     * For normal and call-to-return edges, the position of the
+     * corresponding edge in the out edges of the source in CFG;
+     * for return edges, the ID of the call site; otherwise, -1.
+     */
+    private int[] auxes;
+
+    private int[] inOffsets;
+
+    private int[] inEdges;
+
+    CompactICFG(CallGraph<Stmt, JMethod> callGraph) {
+        super(callGraph);
+        build(callGraph);
+    }
+
+    private void build(CallGraph<Stmt, JMethod> callGraph) {
+        // assign IDs to nodes
+        callGraph.forEach(method -> {
+            CFG<Stmt> cfg = ICFGBuilder.getCFGOf(method);
+            if (cfg == null) {
+                logger.warn("CFG of {} is absent, try to fix this" +
+                        " by adding option -scope=reachable", method);
+                return;
+            }
+            methodIndexMap.put(method, methods.size());
+            methods.add(method);
+            cfgs.add(cfg);
+            returnVars.add(null);
+            exceptions.add(null);
+            cfg.forEach(stmts::add);
+        });
+        buildIdTable();
+        methodIndexes = new int[stmts.size()];
+        for (int i = 0; i < methods.size(); ++i) {
+            for (Stmt stmt : cfgs.get(i)) {
+                methodIndexes[getId(stmt)] = i;
+            }
+        }
+        // collect edges
+        EdgeBuffer buffer = new EdgeBuffer();
+        for (int i = 0; i < methods.size(); ++i) {
+            CFG<Stmt> cfg = cfgs.get(i);
+            for (Stmt stmt : cfg) {
+                int source = getId(stmt);
+                byte kind = isCallSite(stmt) ? CALL_TO_RETURN : NORMAL;
+                int pos = 0;
+                for (Edge<Stmt> edge : cfg.getOutEdgesOf(stmt)) {
+                    buffer.add(kind, source, getId(edge.getTarget()), pos++);
+                }
+                if (isCallSite(stmt)) {
+                    for (JMethod callee : getCalleesOf(stmt)) {
+                        Integer calleeIndex = methodIndexMap.get(callee);
+                        if (calleeIndex == null) {
+                            logger.warn("CFG of {} is missing", callee);
+                            continue;
+                        }
+                        CFG<Stmt> calleeCFG = cfgs.get(calleeIndex);
+                        buffer.add(CALL, source,
+                                getId(calleeCFG.getEntry()), -1);
+                        collectReturnInfo(calleeIndex);
+                        int exit = getId(calleeCFG.getExit());
+                        for (Stmt retSite : cfg.getSuccsOf(stmt)) {
+                            buffer.add(RETURN, exit, getId(retSite), source);
+                        }
+                    }
+                }
+            }
+        }
+        buildCSR(buffer);
+    }
+
+    private void buildIdTable() {
+        // keep the load factor not greater than 0.5
+        int capacity = Integer.highestOneBit(Math.max(stmts.size(), 1)) * 4;
+        idKeys = new Stmt[capacity];
+        idValues = new int[capacity];
+        int mask = capacity - 1;
+        for (int id = 0; id < stmts.size(); ++id) {
+            Stmt stmt = stmts.get(id);
+            int i = hash(stmt) & mask;
+            while (idKeys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            idKeys[i] = stmt;
+            idValues[i] = id;
+        }
+    }
+
+    private static int hash(Stmt stmt) {
+        int h = System.identityHashCode(stmt);
+        return h ^ (h >>> 16);
+    }
+
+    private void collectReturnInfo(int methodIndex) {
+        if (returnVars.get(methodIndex) != null) {
+            return;
+        }
+        Set<Var> retVars = Sets.newHybridSet();
+        Set<ClassType> excs = Sets.newHybridSet();
+        CFG<Stmt> cfg = cfgs.get(methodIndex);
+        // The exit node of CFG is mock, thus it is not a real return
+        // or excepting Stmt. We collect return and exception information
+        // from the real return and excepting Stmts, which appear as
+        // predecessors of the exit node.
+        cfg.getInEdgesOf(cfg.getExit()).forEach(edge -> {
+            if (edge.getKind() == Edge.Kind.RETURN) {
+                Var ret = ((Return) edge.getSource()).getValue();
+                if (ret != null) {
+                    retVars.add(ret);
+                }
+            }
+            if (edge.isExceptional()) {
+                excs.addAll(edge.getExceptions());
+            }
+        });
+        returnVars.set(methodIndex, retVars);
+        exceptions.set(methodIndex, excs);
+    }
+
+    private void buildCSR(EdgeBuffer buffer) {
+        int nodes = stmts.size();
+        int edges = buffer.size;
+        // sort edges by sources (stably), and index in edges by targets
+        outOffsets = new int[nodes + 1];
+        inOffsets = new int[nodes + 1];
+        for (int e = 0; e < edges; ++e) {
+            ++outOffsets[buffer.sources[e] + 1];
+            ++inOffsets[buffer.targets[e] + 1];
+        }
+        for (int n = 0; n < nodes; ++n) {
+            outOffsets[n + 1] += outOffsets[n];
+            inOffsets[n + 1] += inOffsets[n];
+        }
+        sources = new int[edges];
+        targets = new int[edges];
+        kinds = new byte[edges];
+        auxes = new int[edges];
+        int[] next = Arrays.copyOf(outOffsets, nodes);
+        for (int e = 0; e < edges; ++e) {
+            int i = next[buffer.sources[e]]++;
+            sources[i] = buffer.sources[e];
+            targets[i] = buffer.targets[e];
+            kinds[i] = buffer.kinds[e];
+            auxes[i] = buffer.auxes[e];
+        }
+        inEdges = new int[edges];
+        next = Arrays.copyOf(inOffsets, nodes);
+        for (int e = 0; e < edges; ++e) {
+            inEdges[next[targets[e]]++] = e;
+        }
+    }
+
+    /**
+     * Growable arrays of edges. Like {@link DefaultICFG}, which stores
+     * edges in sets, it ignores an edge if there has been an edge of
+     * the same kind between the same nodes.
+     */
+    private static class EdgeBuffer {
+
+        private final Set<Long> added = Sets.newSet();
+
+        private int size = 0;
+
+        private int[] sources = new int[16];
+
+        private int[] targets = new int[16];
+
+        private byte[] kinds = new byte[16];
+
+        private int[] auxes = new int[16];
+
+        private void add(byte kind, int source, int target, int aux) {
+            long key = ((long) kind << 62) | ((long) source << 31) | target;
+            if (!added.add(key)) {
+                return;
+            }
+            if (size == sources.length) {
+                int capacity = size * 2;
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                kinds = Arrays.copyOf(kinds, capacity);
+                auxes = Arrays.copyOf(auxes, capacity);
+            }
+            sources[size] = source;
+            targets[size] = target;
+            kinds[size] = kind;
+            auxes[size] = aux;
+            ++size;
+        }
+    }
+
+    // ---------- int-based APIs ----------
+
+    /**
+     * @return the ID of given statement, or -1 if it is not in this ICFG.
+     */
+    public int getId(Stmt stmt) {
+        int mask = idKeys.length - 1;
+        for (int i = hash(stmt) & mask; idKeys[i] != null; i = (i + 1) & mask) {
+            if (idKeys[i] == stmt) {
+                return idValues[i];
+            }
+        }
+        return -1;
+    }
+
+    public Stmt getStmt(int id) {
+        return stmts.get(id);
+    }
+
+    /**
+     * @return the first out edge of given node.
+     */
+    public int getOutEdgeStart(int node) {
+        return outOffsets[node];
+    }
+
+    /**
+     * @return the out edge after the last out edge of given node.
+     */
+    public int getOutEdgeEnd(int node) {
+        return outOffsets[node + 1];
+    }
+
+    /**
+     * @return the first position of the in edges of given node,
+     * which can be converted to edge by {@link #getInEdge(int)}.
+     */
+    public int getInEdgeStart(int node) {
+        return inOffsets[node];
+    }
+
+    /**
+     * @return the position after the last in edge of given node.
+     */
+    public int getInEdgeEnd(int node) {
+        return inOffsets[node + 1];
+    }
+
+    /**
+     * @return the in edge at given position.
+     */
+    public int getInEdge(int pos) {
+        return inEdges[pos];
+    }
+
+    public int getSource(int edge) {
+        return sources[edge];
+    }
+
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * @return the kind of given edge, i.e., one of {@link #NORMAL},
+     * {@link #CALL_TO_RETURN}, {@link #CALL} and {@link #RETURN}.
+     */
+    public byte getKind(int edge) {
+        return kinds[edge];
+    }
+
+    /**
+     * @return the ID of the call site corresponding to given return edge.
+     */
+    public int getCallSite(int returnEdge) {
+        assert kinds[returnEdge] == RETURN;
+        return auxes[returnEdge];
+    }
+
+    /**
+     * @return the method called by given call edge.
+     */
+    public JMethod getCallee(int callEdge) {
+        assert kinds[callEdge] == CALL;
+        return methods.get(methodIndexes[targets[callEdge]]);
+    }
+
+    /**
+     * @return the return variables of the callee of given return edge.
+     */
+    public Collection<Var> getReturnVars(int returnEdge) {
+        assert kinds[returnEdge] == RETURN;
+        return returnVars.get(methodIndexes[sources[returnEdge]]);
+    }
+
+    public int getNumberOfEdges() {
+        return sources.length;
+    }
+
+    /**
+     * Creates the {@link ICFGEdge} object of given edge. The objects are
+     * not cached, thus clients which traverse the graph frequently
+     * should use the int-based APIs instead.
+     *
+     * @return the {@link ICFGEdge} object of given edge.
+     */
+    public ICFGEdge<Stmt> getEdge(int edge) {
+        Stmt source = stmts.get(sources[edge]);
+        Stmt target = stmts.get(targets[edge]);
+        int method = methodIndexes[sources[edge]];
+        return switch (kinds[edge]) {
+            case NORMAL -> new NormalEdge<>(getCFGEdge(source, method, auxes[edge]));
+            case CALL_TO_RETURN ->
+                    new CallToReturnEdge<>(getCFGEdge(source, method, auxes[edge]));
+            case CALL -> new CallEdge<>(source, target, getCallee(edge));
+            default -> new ReturnEdge<>(source, target, stmts.get(auxes[edge]),
+                    returnVars.get(method), exceptions.get(method));
+        };
+    }
+
+    /**
+     * @return the {@code pos}-th out edge of {@code source} in the CFG.
+     */
+    private Edge<Stmt> getCFGEdge(Stmt source, int method, int pos) {
+        Iterator<Edge<Stmt>> it = cfgs.get(method).getOutEdgesOf(source).iterator();
+        for (int i = 0; i < pos; ++i) {
+            it.next();
+        }
+        return it.next();
+    }
+
+    // ---------- ICFG APIs ----------
+
+    @Override
+    public Set<ICFGEdge<Stmt>> getInEdgesOf(Stmt stmt) {
+        int id = getId(stmt);
+        return id < 0 ? Set.of()
+                : new EdgeSet(inOffsets[id], inOffsets[id + 1], true);
+    }
+
+    @Override
+    public Set<ICFGEdge<Stmt>> getOutEdgesOf(Stmt stmt) {
+        int id = getId(stmt);
+        return id < 0 ? Set.of()
+                : new EdgeSet(outOffsets[id], outOffsets[id + 1], false);
+    }
+
+    @Override
+    public Stmt getEntryOf(JMethod method) {
+        return ICFGBuilder.getCFGOf(method).getEntry();
+    }
+
+    @Override
+    public Stmt getExitOf(JMethod method) {
+        return ICFGBuilder.getCFGOf(method).getExit();
+    }
+
+    @Override
+    public Set<Stmt> getReturnSitesOf(Stmt callSite) {
+        assert isCallSite(callSite);
+        return cfgs.get(methodIndexes[getId(callSite)]).getSuccsOf(callSite);
+    }
+
+    @Override
+    public JMethod getContainingMethodOf(Stmt stmt) {
+        return methods.get(methodIndexes[getId(stmt)]);
+    }
+
+    @Override
+    public boolean isCallSite(Stmt stmt) {
+        return stmt instanceof Invoke;
+    }
+
+    @Override
+    public boolean hasNode(Stmt stmt) {
+        return getId(stmt) >= 0;
+    }
+
+    @Override
+    public boolean hasEdge(Stmt source, Stmt target) {
+        int s = getId(source);
+        int t = getId(target);
+        if (s < 0 || t < 0) {
+            return false;
+        }
+        for (int e = outOffsets[s]; e < outOffsets[s + 1]; ++e) {
+            if (targets[e] == t) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Set<Stmt> getPredsOf(Stmt stmt) {
+        int id = getId(stmt);
+        Set<Stmt> preds = Sets.newHybridSet();
+        if (id >= 0) {
+            for (int i = inOffsets[id]; i < inOffsets[id + 1]; ++i) {
+                preds.add(stmts.get(sources[inEdges[i]]));
+            }
+        }
+        return preds;
+    }
+
+    @Override
+    public Set<Stmt> getSuccsOf(Stmt stmt) {
+        int id = getId(stmt);
+        Set<Stmt> succs = Sets.newHybridSet();
+        if (id >= 0) {
+            for (int e = outOffsets[id]; e < outOffsets[id + 1]; ++e) {
+                succs.add(stmts.get(targets[e]));
+            }
+        }
+        return succs;
+    }
+
+    @Override
+    public Set<Stmt> getNodes() {
+        return new AbstractSet<>() {
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Stmt stmt && getId(stmt) >= 0;
+            }
+
+            @Override
+            public Iterator<Stmt> iterator() {
+                return stmts.iterator();
+            }
+
+            @Override
+            public int size() {
+                return stmts.size();
+            }
+        };
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+        return stmts.size();
+    }
+
+    /**
+     * Unmodifiable view of a range of edges, which creates
+     * the {@link ICFGEdge} objects during iteration.
+     */
+    private class EdgeSet extends AbstractSet<ICFGEdge<Stmt>> {
+
+        private final int start;
+
+        private final int end;
+
+        /**
+         * Whether the range is of {@link #inEdges}.
+         */
+        private final boolean isIn;
+
+        private EdgeSet(int start, int end, boolean isIn) {
+            this.start = start;
+            this.end = end;
+            this.isIn = isIn;
+        }
+
+        @Override
+        public Iterator<ICFGEdge<Stmt>> iterator() {
+            return new Iterator<>() {
+
+                private int pos = start;
+
+                @Override
+                public boolean hasNext() {
+                    return pos < end;
+                }
+
+                @Override
+                public ICFGEdge<Stmt> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int edge = isIn ? inEdges[pos] : pos;
+                    ++pos;
+                    return getEdge(edge);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
+    }
+}
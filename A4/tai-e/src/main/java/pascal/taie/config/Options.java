@@ -0,0 +1,323 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.WorldBuilder;
+import pascal.taie.frontend.soot.SootWorldBuilder;
+import pascal.taie.language.classes.JMethod;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Option class for Tai-e.
+ * We name this class in the plural to avoid name collision with {@link Option}.
+ */
+@Command(name = "Options",
+        description = "Tai-e options",
+        usageHelpWidth = 120,
+        footer = "--------------------\nVersion 0.1\n--------------------"
+)
+public class Options {
+
+    private static final Logger logger = LogManager.getLogger(Options.class);
+
+    // ---------- file-based options ----------
+    @Option(names = "--options-file",
+            description = "The options file")
+    private File optionsFile;
+
+    // ---------- information options ----------
+    @JsonProperty
+    @Option(names = {"-h", "--help"},
+            description = "Display this help message",
+            defaultValue = "false",
+            usageHelp = true)
+    private boolean printHelp = false;
+
+    public File getOptionsFile() {
+        return optionsFile;
+    }
+
+    public boolean isPrintHelp() {
+        return printHelp;
+    }
+
+    public void printHelp() {
+        CommandLine cmd = new CommandLine(this);
+        cmd.setUsageHelpLongOptionsMaxWidth(30);
+        cmd.usage(System.out);
+    }
+
+    // ---------- program options ----------
+    @JsonProperty
+    @Option(names = "-java",
+            description = "Java version used by the program being analyzed" +
+                    " (default: ${DEFAULT-VALUE})",
+            defaultValue = "6")
+    private int javaVersion = 6;
+
+    @JsonProperty
+    @Option(names = {"-pp", "--prepend-JVM"},
+            description = "Prepend class path of current JVM to Tai-e's class path" +
+                    " (default: ${DEFAULT-VALUE})",
+            defaultValue = "false")
+    private boolean prependJVM = false;
+
+    @JsonProperty
+    @Option(names = {"-cp", "--class-path"},
+            description = "Class path")
+    private String classPath;
+
+    @JsonProperty
+    @Option(names = {"-m", "--main-class"},
+            description = "Main class")
+    private String mainClass;
+
+    public int getJavaVersion() {
+        return javaVersion;
+    }
+
+    public boolean isPrependJVM() {
+        return prependJVM;
+    }
+
+    public String getClassPath() {
+        return classPath;
+    }
+
+    public String getMainClass() {
+        return mainClass;
+    }
+
+    // ---------- general analysis options ----------
+    @JsonProperty
+    @Option(names = "--world-builder",
+            description = "Specify world builder class (default: ${DEFAULT-VALUE})",
+            defaultValue = "pascal.taie.frontend.soot.SootWorldBuilder")
+    private Class<? extends WorldBuilder> worldBuilderClass = SootWorldBuilder.class;
+
+    @JsonProperty
+    @Option(names = "--pre-build-ir",
+            description = "Build Tai-e IR for all available methods before" +
+                    " starting pointer analysis (default: ${DEFAULT-VALUE})",
+            defaultValue = "false")
+    private boolean preBuildIR = false;
+
+    @JsonProperty
+    @Option(names = "-scope",
+            description = "Scope for intra-procedural analyses (default: ${DEFAULT-VALUE})",
+            defaultValue = "app")
+    private String scope;
+
+    @JsonProperty
+    @Option(names = "--no-native-model",
+            description = "Enable native model (default: ${DEFAULT-VALUE})",
+            defaultValue = "true",
+            negatable = true)
+    private boolean nativeModel = true;
+
+    @JsonProperty
+    @Option(names = "--dump-classes",
+            description = "Dump classes  (default: ${DEFAULT-VALUE})",
+            defaultValue = "false")
+    private boolean dumpClasses = false;
+
+    @JsonProperty
+    @Option(names = "--ir-cache",
+            description = "Number of methods whose unpinned IR is kept in memory," +
+                    " 0 to keep the IR of all methods; requires --pre-build-ir" +
+                    " (default: ${DEFAULT-VALUE})",
+            defaultValue = "0")
+    private int irCacheCapacity = 0;
+
+    public Class<? extends WorldBuilder> getWorldBuilderClass() {
+        return worldBuilderClass;
+    }
+
+    public boolean isPreBuildIR() {
+        return preBuildIR;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public boolean enableNativeModel() {
+        return nativeModel;
+    }
+
+    public boolean isDumpClasses() {
+        return dumpClasses;
+    }
+
+    /**
+     * @return the capacity of the IR cache, or 0 if the cache is disabled.
+     */
+    public int getIRCacheCapacity() {
+        return irCacheCapacity;
+    }
+
+    // ---------- specific analysis options ----------
+    @JsonProperty
+    @Option(names = {"-p", "--plan-file"},
+            description = "The analysis plan file")
+    private File planFile;
+
+    @JsonProperty
+    @Option(names = {"-a", "--analysis"},
+            description = "Analyses to be executed",
+            mapFallbackValue = "")
+    private Map<String, String> analyses = Map.of();
+
+    @JsonProperty
+    @Option(names = {"-g", "--gen-plan-file"},
+            description = "Merely generate analysis plan",
+            defaultValue = "false")
+    private boolean onlyGenPlan = false;
+
+    public File getPlanFile() {
+        return planFile;
+    }
+
+    public Map<String, String> getAnalyses() {
+        return analyses;
+    }
+
+    public boolean isOnlyGenPlan() {
+        return onlyGenPlan;
+    }
+
+    /**
+     * Parse arguments and return options.
+     */
+    public static Options parse(String... args) {
+        Options options = CommandLine.populateCommand(new Options(), args);
+        return postProcess(options);
+    }
+
+    /**
+     * Validates input options and do some post-processing on it.
+     *
+     * @return the Options object after post-processing.
+     */
+    private static Options postProcess(Options options) {
+        if (options.optionsFile != null) {
+            // If options file is given, we ignore other options,
+            // and instead read options from the file.
+            options = readRawOptions(options.optionsFile);
+        }
+        if (options.prependJVM) {
+            options.javaVersion = getCurrentJavaVersion();
+        }
+        if (options.irCacheCapacity > 0 && !options.preBuildIR) {
+            // the Soot frontend keeps the method sources, from which
+            // the evicted IR is rebuilt, only if the IR is pre-built
+            throw new ConfigException(
+                    "--ir-cache requires --pre-build-ir to rebuild evicted IR");
+        }
+        // the capacity must be set before any IR is built
+        JMethod.setIRCacheCapacity(options.irCacheCapacity);
+        if (!options.analyses.isEmpty() && options.planFile != null) {
+            // The user should choose either options or plan file to
+            // specify analyses to be executed.
+            throw new ConfigException("Conflict options: " +
+                    "--analysis and --plan-file should not be used simultaneously");
+        }
+        // TODO: turn off output in testing?
+        if (options.optionsFile == null) {
+            // Output options to file for reproducible analysis
+            writeOptions(options, Configs.getDefaultOptions());
+        }
+        return options;
+    }
+
+    /**
+     * Reads options from file.
+     * Note: the returned options have not been post-processed.
+     */
+    private static Options readRawOptions(File file) {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        try {
+            return mapper.readValue(file, Options.class);
+        } catch (IOException e) {
+            throw new ConfigException("Failed to read options from " + file, e);
+        }
+    }
+
+    static int getCurrentJavaVersion() {
+        String version = System.getProperty("java.version");
+        String[] splits = version.split("\\.");
+        int i0 = Integer.parseInt(splits[0]);
+        if (i0 == 1) { // format 1.x.y_z (for Java 1-8)
+            return Integer.parseInt(splits[1]);
+        } else { // format x.y.z (for Java 9+)
+            return i0;
+        }
+    }
+
+    /**
+     * Writes options to given file.
+     */
+    private static void writeOptions(Options options, File output) {
+        ObjectMapper mapper = new ObjectMapper(
+                new YAMLFactory()
+                        .disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER)
+                        .enable(YAMLGenerator.Feature.MINIMIZE_QUOTES));
+        try {
+            logger.info("Writing options to {}", output);
+            mapper.writeValue(output, options);
+        } catch (IOException e) {
+            throw new ConfigException("Failed to write options " + output, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Options{" +
+                "help=" + printHelp +
+                ", javaVersion=" + javaVersion +
+                ", prependJVM=" + prependJVM +
+                ", classPath='" + classPath + '\'' +
+                ", mainClass='" + mainClass + '\'' +
+                ", worldBuilderClass=" + worldBuilderClass +
+                ", preBuildIR=" + preBuildIR +
+                ", nativeModel=" + nativeModel +
+                ", dumpClasses=" + dumpClasses +
+                ", irCacheCapacity=" + irCacheCapacity +
+                ", planFile='" + planFile + '\'' +
+                ", analyses=" + analyses +
+                ", genPlanFile=" + onlyGenPlan +
+                '}';
+    }
+}
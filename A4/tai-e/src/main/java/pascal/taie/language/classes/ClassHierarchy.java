@@ -26,6 +26,7 @@ import pascal.taie.ir.proginfo.MethodRef;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Set;
 import java.util.stream.Stream;
 
 /**
@@ -75,6 +76,18 @@ public interface ClassHierarchy {
      */
     Collection<JClass> getDirectSubclassesOf(JClass jclass);
 
+    /**
+     * @return true if {@code subtype} is {@code supertype} itself, or
+     * a direct or indirect subclass, implementor or subinterface of it.
+     */
+    boolean isSubtype(JClass supertype, JClass subtype);
+
+    /**
+     * @return given class itself and all its direct and indirect
+     * subclasses, implementors and subinterfaces.
+     */
+    Collection<JClass> getAllSubclassesOf(JClass jclass);
+
     /**
      * Obtains a JRE class by it name.
      *
@@ -87,6 +100,27 @@ public interface ClassHierarchy {
 
     @Nullable JMethod resolveMethod(MethodRef methodRef);
 
+    /**
+     * Looks up the non-abstract method with given subsignature that is
+     * invoked when the receiver object is an instance of given class,
+     * i.e., the one declared in the class itself or its closest superclass.
+     * The results, including the absence of such a method, are cached.
+     *
+     * @return the dispatched method, or null if no satisfying method
+     * can be found.
+     */
+    @Nullable JMethod dispatch(JClass receiverClass, Subsignature subsignature);
+
+    /**
+     * Computes the possible targets of a virtual or interface call whose
+     * method reference is declared in given class, i.e., the methods
+     * dispatched on the class and all its subclasses, implementors and
+     * subinterfaces. The results are cached.
+     *
+     * @return the unmodifiable set of targets.
+     */
+    Set<JMethod> getDispatchTargets(JClass jclass, Subsignature subsignature);
+
     /**
      * Obtains a method declared in a JRE class by its signature.
      *
@@ -97,4 +131,15 @@ public interface ClassHierarchy {
      */
     @Nullable
     JMethod getJREMethod(String methodSig);
+
+    /**
+     * Obtains a field declared in a JRE class by its signature.
+     *
+     * @param fieldSig of the field
+     * @return the {@link JField} for signature if found;
+     * null if can't find the field.
+     * @throws pascal.taie.util.AnalysisException if signature is invalid.
+     */
+    @Nullable
+    JField getJREField(String fieldSig);
 }
@@ -28,14 +28,20 @@ import pascal.taie.ir.proginfo.MethodRef;
 import pascal.taie.util.AnalysisException;
 
 import javax.annotation.Nullable;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static pascal.taie.util.collection.Maps.newConcurrentMap;
 import static pascal.taie.util.collection.Maps.newMap;
 import static pascal.taie.util.collection.Maps.newSmallMap;
+import static pascal.taie.util.collection.Sets.newHybridOrderedSet;
 import static pascal.taie.util.collection.Sets.newHybridSet;
 
 public class ClassHierarchyImpl implements ClassHierarchy {
@@ -65,6 +71,25 @@ public class ClassHierarchyImpl implements ClassHierarchy {
      */
     private final Map<JClass, Set<JClass>> directSubclasses = newMap();
 
+    /**
+     * Index of subtype relation, which is built on demand after
+     * the classes are loaded and discarded when a class is added.
+     */
+    private volatile SubtypeIndex subtypeIndex;
+
+    /**
+     * Cache of the results of {@link #dispatch(JClass, Subsignature)},
+     * where {@link Optional#empty()} records that no method is found.
+     * The caches are concurrent as call graph construction may query
+     * them from multiple threads.
+     */
+    private final Map<JClass, Map<Subsignature, Optional<JMethod>>> dispatchTable = newConcurrentMap();
+
+    /**
+     * Cache of the results of {@link #getDispatchTargets(JClass, Subsignature)}.
+     */
+    private final Map<JClass, Map<Subsignature, Set<JMethod>>> dispatchTargets = newConcurrentMap();
+
     @Override
     public void setDefaultClassLoader(JClassLoader loader) {
         this.defaultLoader = loader;
@@ -97,6 +122,10 @@ public class ClassHierarchyImpl implements ClassHierarchy {
 
     @Override
     public void addClass(JClass jclass) {
+        // new class may change the results of dispatch
+        dispatchTable.clear();
+        dispatchTargets.clear();
+        subtypeIndex = null;
         // Add direct subinterface
         if (jclass.isInterface()) {
             jclass.getInterfaces().forEach(iface ->
@@ -160,6 +189,44 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         return directSubclasses.getOrDefault(jclass, Set.of());
     }
 
+    @Override
+    public boolean isSubtype(JClass supertype, JClass subtype) {
+        return getSubtypeIndex().isSubtype(supertype, subtype);
+    }
+
+    @Override
+    public Collection<JClass> getAllSubclassesOf(JClass jclass) {
+        Collection<JClass> subclasses = getSubtypeIndex().getAllSubclassesOf(jclass);
+        if (subclasses == null) { // jclass was not loaded when indexing
+            Set<JClass> visited = newHybridOrderedSet();
+            Queue<JClass> workList = new ArrayDeque<>();
+            workList.add(jclass);
+            while (!workList.isEmpty()) {
+                JClass c = workList.poll();
+                if (visited.add(c)) {
+                    workList.addAll(getDirectSubclassesOf(c));
+                    workList.addAll(getDirectImplementorsOf(c));
+                    workList.addAll(getDirectSubinterfacesOf(c));
+                }
+            }
+            subclasses = Collections.unmodifiableSet(visited);
+        }
+        return subclasses;
+    }
+
+    private SubtypeIndex getSubtypeIndex() {
+        SubtypeIndex index = subtypeIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = subtypeIndex;
+                if (index == null) {
+                    subtypeIndex = index = new SubtypeIndex(this);
+                }
+            }
+        }
+        return index;
+    }
+
     private static boolean checkCHA = false;
 
     public static void setCheckCHA(boolean checkCHA) {
@@ -193,6 +260,47 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         return null;
     }
 
+    @Override
+    public @Nullable
+    JMethod dispatch(JClass receiverClass, Subsignature subsignature) {
+        return dispatchTable.computeIfAbsent(receiverClass, unused -> newConcurrentMap())
+                .computeIfAbsent(subsignature, subsig ->
+                        Optional.ofNullable(lookupDeclaredMethod(receiverClass, subsig)))
+                .orElse(null);
+    }
+
+    /**
+     * @return the non-abstract method with given subsignature declared
+     * in given class or its closest superclass, or null if there is none.
+     */
+    private static JMethod lookupDeclaredMethod(JClass jclass, Subsignature subsignature) {
+        for (JClass c = jclass; c != null; c = c.getSuperClass()) {
+            JMethod method = c.getDeclaredMethod(subsignature);
+            if (method != null && !method.isAbstract()) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Set<JMethod> getDispatchTargets(JClass jclass, Subsignature subsignature) {
+        return dispatchTargets.computeIfAbsent(jclass, unused -> newConcurrentMap())
+                .computeIfAbsent(subsignature,
+                        subsig -> computeDispatchTargets(jclass, subsig));
+    }
+
+    private Set<JMethod> computeDispatchTargets(JClass jclass, Subsignature subsignature) {
+        Set<JMethod> targets = newHybridOrderedSet();
+        for (JClass c : getAllSubclassesOf(jclass)) {
+            JMethod target = dispatch(c, subsignature);
+            if (target != null) {
+                targets.add(target);
+            }
+        }
+        return Collections.unmodifiableSet(targets);
+    }
+
     private JMethod lookupMethod(JClass jclass, Subsignature subsignature,
                                  boolean allowAbstract) {
         for (JClass c = jclass; c != null; c = c.getSuperClass()) {
@@ -247,4 +355,15 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         }
         return null;
     }
+
+    @Override
+    public @Nullable
+    JField getJREField(String fieldSig) {
+        String className = StringReps.getClassNameOf(fieldSig);
+        JClass jclass = getJREClass(className);
+        if (jclass != null) {
+            return jclass.getDeclaredField(StringReps.getFieldNameOf(fieldSig));
+        }
+        return null;
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.language.classes;
+
+import pascal.taie.ir.IR;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Size-bounded LRU cache of the IR of the most recently used methods
+ * whose IR is not pinned (see {@link JMethod#pinIR()}). When the cache
+ * is full, the IR of the least recently used method is evicted from
+ * the method, and rebuilt when it is requested again. The rebuild
+ * callbacks are applied to the rebuilt IR to restore its results.
+ * <p>
+ * The cache is disabled by default, in which case {@link JMethod} keeps
+ * the IR of every method it has built.
+ */
+final class IRCache {
+
+    /**
+     * Capacity of the cache, or 0 if the cache is disabled.
+     * It is volatile so that {@link #touch(JMethod, IR)} can skip
+     * the disabled cache without locking.
+     */
+    private static volatile int capacity = 0;
+
+    private static final Map<JMethod, IR> recentIRs =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    private static final List<Consumer<IR>> rebuildCallbacks =
+            new CopyOnWriteArrayList<>();
+
+    private IRCache() {
+    }
+
+    static synchronized void setCapacity(int capacity) {
+        IRCache.capacity = capacity;
+        recentIRs.clear();
+        rebuildCallbacks.clear();
+    }
+
+    static void addRebuildCallback(Consumer<IR> callback) {
+        rebuildCallbacks.add(callback);
+    }
+
+    /**
+     * Applies the rebuild callbacks to given IR, which is rebuilt after
+     * the previous IR of its method was evicted.
+     */
+    static void rebuilt(IR ir) {
+        rebuildCallbacks.forEach(callback -> callback.accept(ir));
+    }
+
+    static boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * Records that the IR of given method is used, and evicts the IR
+     * of the least recently used methods if the cache is full.
+     * This must not be called with the lock of any method held,
+     * as evicting the IR locks the evicted method.
+     */
+    static void touch(JMethod method, IR ir) {
+        if (capacity == 0) {
+            return;
+        }
+        List<Map.Entry<JMethod, IR>> evicted = new ArrayList<>();
+        synchronized (IRCache.class) {
+            recentIRs.put(method, ir);
+            Iterator<Map.Entry<JMethod, IR>> it = recentIRs.entrySet().iterator();
+            while (recentIRs.size() > capacity) {
+                Map.Entry<JMethod, IR> eldest = it.next();
+                evicted.add(Map.entry(eldest.getKey(), eldest.getValue()));
+                it.remove();
+            }
+        }
+        evicted.forEach(e -> e.getKey().evictIR(e.getValue()));
+    }
+}
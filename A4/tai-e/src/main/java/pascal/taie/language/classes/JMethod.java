@@ -35,6 +35,7 @@ import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Represents methods in the program. Each instance contains various
@@ -60,8 +61,24 @@ public class JMethod extends ClassMember {
      */
     private final Object methodSource;
 
+    /**
+     * The IR of this method, or null if it has not been built
+     * or has been evicted by the IR cache.
+     */
     private IR ir;
 
+    /**
+     * Number of clients that pin the IR. The IR cache never evicts
+     * the IR while it is pinned.
+     */
+    private int pins = 0;
+
+    /**
+     * Whether the IR has been evicted, so that the next built IR
+     * is a rebuilt one.
+     */
+    private boolean irEvicted = false;
+
     public JMethod(JClass declaringClass, String name, Set<Modifier> modifiers,
                    List<Type> paramTypes, Type returnType, List<ClassType> exceptions,
                    AnnotationHolder annotationHolder,
@@ -148,7 +165,46 @@ public class JMethod extends ClassMember {
         return methodSource;
     }
 
+    /**
+     * Returns the IR of this method, which is built on demand.
+     * <p>
+     * If the IR cache is enabled (see {@link #setIRCacheCapacity(int)}),
+     * the IR that is not pinned is evicted when it is not among the most
+     * recently used ones, and it is rebuilt transparently by the next call
+     * of this method. The rebuilt IR consists of new
+     * {@link pascal.taie.ir.stmt.Stmt}s, and the results stored in it are
+     * recomputed by the callbacks added by {@link #addIRRebuildCallback}.
+     * Thus the clients that keep the statements of the IR must either
+     * identify them by their indexes, or call {@link #pinIR()}.
+     */
     public IR getIR() {
+        IR ir;
+        boolean pinned;
+        synchronized (this) {
+            ir = getOrBuildIR();
+            pinned = pins > 0;
+        }
+        // touch the cache without holding the lock of this method,
+        // as the cache may evict the IR of other methods
+        if (!pinned) {
+            IRCache.touch(this, ir);
+        }
+        return ir;
+    }
+
+    /**
+     * Pins the IR of this method, so that it is not evicted until
+     * the matching call of {@link #unpinIR()}.
+     *
+     * @return the pinned IR.
+     */
+    public synchronized IR pinIR() {
+        IR ir = getOrBuildIR();
+        ++pins;
+        return ir;
+    }
+
+    private IR getOrBuildIR() {
         if (ir == null) {
             if (isAbstract()) {
                 throw new AnalysisException("Abstract method " + this +
@@ -159,10 +215,61 @@ public class JMethod extends ClassMember {
             } else {
                 ir = World.get().getIRBuilder().buildIR(this);
             }
+            if (irEvicted) {
+                IRCache.rebuilt(ir);
+            }
         }
         return ir;
     }
 
+    /**
+     * Releases a pin acquired by {@link #pinIR()}. Once no pin is left,
+     * the IR can be evicted by the IR cache again.
+     */
+    public void unpinIR() {
+        IR ir;
+        synchronized (this) {
+            if (pins == 0) {
+                throw new AnalysisException("IR of " + this + " is not pinned");
+            }
+            if (--pins > 0) {
+                return;
+            }
+            ir = this.ir;
+        }
+        IRCache.touch(this, ir);
+    }
+
+    /**
+     * Discards given IR if it is still the unpinned IR of this method.
+     * This is called by the IR cache when it evicts the IR.
+     */
+    synchronized void evictIR(IR ir) {
+        if (pins == 0 && this.ir == ir) {
+            this.ir = null;
+            irEvicted = true;
+        }
+    }
+
+    /**
+     * Sets the number of unpinned methods whose IR is kept by the IR cache,
+     * or 0 to disable the cache so that all built IR is kept.
+     * This should be set before any IR is built.
+     */
+    public static void setIRCacheCapacity(int capacity) {
+        IRCache.setCapacity(capacity);
+    }
+
+    /**
+     * Adds a callback which is applied to every IR rebuilt after eviction,
+     * e.g., to recompute the results stored in the IR. The callbacks are
+     * applied in the order of addition, and are removed when the capacity
+     * of the IR cache is set.
+     */
+    public static void addIRRebuildCallback(Consumer<IR> callback) {
+        IRCache.addRebuildCallback(callback);
+    }
+
     /**
      * @return the {@link MethodRef} pointing to this method.
      */
@@ -0,0 +1,234 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.language.classes;
+
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import static pascal.taie.util.collection.Sets.newHybridSet;
+
+/**
+ * Frozen index of the subtype relation of a class hierarchy, which answers
+ * subtype queries in constant time.
+ * <p>
+ * Classes are numbered by a pre-order DFS over the class tree, so that all
+ * subclasses of a class occupy a contiguous range of numbers starting from
+ * the class itself. Interfaces are numbered after the classes, and each
+ * interface keeps the bitset of the numbers of all its subtypes, in which
+ * an implementor contributes the whole range of its subclasses.
+ * <p>
+ * Classes and interfaces that are not loaded when the index is built are
+ * not numbered, and queries about them fall back to walking the hierarchy.
+ */
+class SubtypeIndex {
+
+    private final ClassHierarchy hierarchy;
+
+    private final Map<JClass, Integer> ids = Maps.newMap();
+
+    /**
+     * Classes and interfaces indexed by their numbers.
+     */
+    private final List<JClass> types = new ArrayList<>();
+
+    /**
+     * For each class number, the number of the last subclass of the class
+     * in the pre-order, i.e., the end (inclusive) of its subclass range.
+     */
+    private final int[] lasts;
+
+    /**
+     * Map from each interface to the bitset of the numbers of its subtypes.
+     */
+    private final Map<JClass, BitSet> interfaceSubtypes = Maps.newMap();
+
+    /**
+     * Cache of the subtypes of each interface.
+     */
+    private final Map<JClass, Collection<JClass>> interfaceSubtypeViews =
+            Maps.newConcurrentMap();
+
+    SubtypeIndex(ClassHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+        List<JClass> interfaces = new ArrayList<>();
+        List<Integer> lastList = new ArrayList<>();
+        hierarchy.allClasses().forEach(c -> {
+            if (c.isInterface()) {
+                interfaces.add(c);
+            } else if (!ids.containsKey(c)) {
+                numberClassTree(getRoot(c), lastList);
+            }
+        });
+        lasts = lastList.stream().mapToInt(Integer::intValue).toArray();
+        interfaces.forEach(i -> {
+            ids.put(i, types.size());
+            types.add(i);
+        });
+        interfaces.forEach(this::computeInterfaceSubtypes);
+    }
+
+    private static JClass getRoot(JClass jclass) {
+        JClass root = jclass;
+        while (root.getSuperClass() != null) {
+            root = root.getSuperClass();
+        }
+        return root;
+    }
+
+    /**
+     * Numbers the classes in the tree rooted at given class by
+     * an iterative pre-order DFS, and records the end of their ranges.
+     */
+    private void numberClassTree(JClass root, List<Integer> lastList) {
+        Deque<JClass> stack = new ArrayDeque<>();
+        Deque<Iterator<JClass>> iterators = new ArrayDeque<>();
+        visitClass(root, stack, iterators, lastList);
+        while (!stack.isEmpty()) {
+            Iterator<JClass> it = iterators.peek();
+            if (it.hasNext()) {
+                JClass subclass = it.next();
+                if (!ids.containsKey(subclass)) {
+                    visitClass(subclass, stack, iterators, lastList);
+                }
+            } else {
+                JClass jclass = stack.pop();
+                iterators.pop();
+                lastList.set(ids.get(jclass), types.size() - 1);
+            }
+        }
+    }
+
+    private void visitClass(JClass jclass, Deque<JClass> stack,
+                            Deque<Iterator<JClass>> iterators,
+                            List<Integer> lastList) {
+        ids.put(jclass, types.size());
+        types.add(jclass);
+        lastList.add(-1);
+        stack.push(jclass);
+        iterators.push(hierarchy.getDirectSubclassesOf(jclass).iterator());
+    }
+
+    private BitSet computeInterfaceSubtypes(JClass iface) {
+        BitSet subtypes = interfaceSubtypes.get(iface);
+        if (subtypes == null) {
+            subtypes = new BitSet();
+            subtypes.set(ids.get(iface));
+            for (JClass implementor : hierarchy.getDirectImplementorsOf(iface)) {
+                Integer id = ids.get(implementor);
+                if (id != null) {
+                    subtypes.set(id, lasts[id] + 1);
+                }
+            }
+            for (JClass subinterface : hierarchy.getDirectSubinterfacesOf(iface)) {
+                if (ids.containsKey(subinterface)) {
+                    subtypes.or(computeInterfaceSubtypes(subinterface));
+                }
+            }
+            interfaceSubtypes.put(iface, subtypes);
+        }
+        return subtypes;
+    }
+
+    /**
+     * @return true if {@code subtype} is {@code supertype} itself, or
+     * a direct or indirect subclass, implementor or subinterface of it.
+     */
+    boolean isSubtype(JClass supertype, JClass subtype) {
+        if (supertype == subtype) {
+            return true;
+        }
+        Integer superId = ids.get(supertype);
+        Integer subId = ids.get(subtype);
+        if (superId == null || subId == null) {
+            return isSubtypeByWalk(supertype, subtype);
+        }
+        if (supertype.isInterface()) {
+            return interfaceSubtypes.get(supertype).get(subId);
+        } else if (subtype.isInterface()) {
+            // interfaces are only subtypes of java.lang.Object
+            return supertype.getName().equals(ClassNames.OBJECT);
+        } else {
+            return superId <= subId && subId <= lasts[superId];
+        }
+    }
+
+    private static boolean isSubtypeByWalk(JClass supertype, JClass subtype) {
+        if (supertype.getName().equals(ClassNames.OBJECT)) {
+            return true;
+        }
+        Set<JClass> visited = newHybridSet();
+        Queue<JClass> workList = new ArrayDeque<>();
+        workList.add(subtype);
+        while (!workList.isEmpty()) {
+            JClass c = workList.poll();
+            if (c == supertype) {
+                return true;
+            }
+            if (visited.add(c)) {
+                if (c.getSuperClass() != null) {
+                    workList.add(c.getSuperClass());
+                }
+                workList.addAll(c.getInterfaces());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code jclass} itself and all its direct and indirect
+     * subclasses, implementors and subinterfaces, or null if
+     * {@code jclass} is not indexed.
+     */
+    Collection<JClass> getAllSubclassesOf(JClass jclass) {
+        Integer id = ids.get(jclass);
+        if (id == null) {
+            return null;
+        }
+        if (jclass.isInterface()) {
+            return interfaceSubtypeViews.computeIfAbsent(jclass, iface -> {
+                BitSet subtypes = interfaceSubtypes.get(iface);
+                JClass[] result = new JClass[subtypes.cardinality()];
+                int i = 0;
+                for (int t = subtypes.nextSetBit(0); t >= 0;
+                     t = subtypes.nextSetBit(t + 1)) {
+                    result[i++] = types.get(t);
+                }
+                return Collections.unmodifiableList(Arrays.asList(result));
+            });
+        } else {
+            return Collections.unmodifiableList(
+                    types.subList(id, lasts[id] + 1));
+        }
+    }
+}
@@ -31,8 +31,12 @@ public class InterCPTest {
     private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/inter";
 
     void test(String inputClass) {
+        test(inputClass, "edge-refine:false;alias-aware:false");
+    }
+
+    void test(String inputClass, String opts) {
         Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
-                "edge-refine:false;alias-aware:false", "-a", "cg=algorithm:cha"
+                opts, "-a", "cg=algorithm:cha"
                 // , "-a", "icfg=dump:true" // <-- uncomment this code if you want
                                             // to output ICFGs for the test cases
         );
@@ -57,4 +61,75 @@ public class InterCPTest {
     public void testMultiIntArgs() {
         test("MultiIntArgs");
     }
+
+    @Test
+    public void testPersistentFactFibonacci() {
+        test("Fibonacci", "edge-refine:false;alias-aware:false;persistent-fact:true");
+    }
+
+    @Test
+    public void testPersistentFactMultiIntArgs() {
+        test("MultiIntArgs", "edge-refine:false;alias-aware:false;persistent-fact:true");
+    }
+
+    @Test
+    public void testParallelFibonacci() {
+        Tests.test("Fibonacci", CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;threads:4",
+                "-a", "cg=algorithm:cha;threads:4");
+    }
+
+    @Test
+    public void testParallelMultiIntArgs() {
+        Tests.test("MultiIntArgs", CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;threads:4",
+                "-a", "cg=algorithm:cha;threads:4");
+    }
+
+    @Test
+    public void testIDEExample() {
+        test("Example", "edge-refine:false;alias-aware:false;ide:true");
+    }
+
+    @Test
+    public void testIDEReference() {
+        test("Reference", "edge-refine:false;alias-aware:false;ide:true");
+    }
+
+    @Test
+    public void testIDEFibonacci() {
+        test("Fibonacci", "edge-refine:false;alias-aware:false;ide:true");
+    }
+
+    @Test
+    public void testIDEMultiIntArgs() {
+        test("MultiIntArgs", "edge-refine:false;alias-aware:false;ide:true");
+    }
+
+    @Test
+    public void testCompactICFGExample() {
+        Tests.test("Example", CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false",
+                "-a", "cg=algorithm:cha", "-a", "icfg=compact:true");
+    }
+
+    @Test
+    public void testIRCacheExample() {
+        // the cache is much smaller than the pre-built IR, so that the IR
+        // of the reachable methods is evicted and rebuilt between passes
+        Tests.test("Example", CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false",
+                "-a", "cg=algorithm:cha", "--pre-build-ir", "--ir-cache", "2");
+    }
+
+    @Test
+    public void testLoadedCallGraphExample() {
+        String file = "output/Example-cg.bin";
+        Tests.test("Example", CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false",
+                "-a", "cg=algorithm:cha;dump-binary:" + file);
+        Tests.test("Example", CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false",
+                "-a", "cg=algorithm:cha;load-binary:" + file);
+    }
 }
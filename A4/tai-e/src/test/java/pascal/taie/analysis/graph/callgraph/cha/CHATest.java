@@ -50,4 +50,33 @@ public class CHATest {
     public void testAbstractMethod() {
         test("AbstractMethod");
     }
+
+    @Test
+    public void testParallelVirtualCall() {
+        Tests.test("VirtualCall", "src/test/resources/cha/", "cg",
+                "algorithm:cha;threads:4");
+    }
+
+    @Test
+    public void testParallelInterface() {
+        Tests.test("Interface", "src/test/resources/cha/", "cg",
+                "algorithm:cha;threads:4");
+    }
+
+    @Test
+    public void testBinaryDumpAndLoad() {
+        String file = "output/VirtualCall-cg.bin";
+        Tests.test("VirtualCall", "src/test/resources/cha/", "cg",
+                "algorithm:cha;dump-binary:" + file);
+        Tests.test("VirtualCall", "src/test/resources/cha/", "cg",
+                "algorithm:cha;load-binary:" + file);
+        Tests.test("VirtualCall", "src/test/resources/cha/", "cg",
+                "algorithm:cha;compact:true;load-binary:" + file);
+    }
+
+    @Test
+    public void testCompactInterface() {
+        Tests.test("Interface", "src/test/resources/cha/", "cg",
+                "algorithm:cha;compact:true");
+    }
 }
@@ -0,0 +1,87 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph.rta;
+
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RTATest {
+
+    protected static void test(String main) {
+        Tests.test(main, "src/test/resources/rta/", "cg", "algorithm:rta");
+    }
+
+    @Test
+    public void testVirtualCall() {
+        test("VirtualCall");
+    }
+
+    @Test
+    public void testLiterals() {
+        test("Literals");
+    }
+
+    /**
+     * RTA only drops the call edges of CHA to the methods
+     * of the classes which are never instantiated.
+     */
+    @Test
+    public void testVirtualCallAgainstCHA() {
+        Set<String> cha = buildEdges("VirtualCall", "cha");
+        Set<String> rta = buildEdges("VirtualCall", "rta");
+        assertTrue(cha.containsAll(rta));
+        cha.removeAll(rta);
+        assertEquals(Set.of(
+                "<VirtualCall: void main(java.lang.String[])>[3] -> <C: void foo()>",
+                "<VirtualCall: void main(java.lang.String[])>[3] -> <D: void foo()>"),
+                cha);
+    }
+
+    /**
+     * Builds the call graph of given main class with given algorithm.
+     *
+     * @return the call edges, each of which is represented by its caller,
+     * the index of its call site and its callee.
+     */
+    private static Set<String> buildEdges(String main, String algorithm) {
+        Main.main(new String[]{ "-pp", "-cp", "src/test/resources/rta/",
+                "-m", main, "-a", "cg=algorithm:" + algorithm });
+        CallGraph<Invoke, JMethod> callGraph = World.get().getResult(CallGraphBuilder.ID);
+        return callGraph.edges()
+                .map(e -> e.getCallSite().getContainer() + "[" +
+                        e.getCallSite().getIndex() + "] -> " + e.getCallee())
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.DefaultCallGraph;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.IRBuilder;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.type.VoidType;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class IRCacheTest {
+
+    private final JClass jclass = new JClass(null, "C");
+
+    /**
+     * Number of IRs built by the IR builder.
+     */
+    private int builds;
+
+    @Before
+    public void setUp() {
+        builds = 0;
+        World world = new World();
+        world.setIRBuilder(new IRBuilder() {
+            @Override
+            public IR buildIR(JMethod method) {
+                ++builds;
+                return new DefaultIR(method, null, List.of(), Set.of(),
+                        List.of(), List.of(), List.of());
+            }
+
+            @Override
+            public void buildAll(ClassHierarchy hierarchy) {
+            }
+        });
+        World.set(world);
+        JMethod.setIRCacheCapacity(1);
+    }
+
+    @After
+    public void tearDown() {
+        JMethod.setIRCacheCapacity(0);
+    }
+
+    private JMethod newMethod(String name) {
+        return new JMethod(jclass, name, Set.of(), List.of(), VoidType.VOID,
+                List.of(), AnnotationHolder.emptyHolder(), null, null);
+    }
+
+    @Test
+    public void testEvictAndRebuild() {
+        JMethod m1 = newMethod("m1");
+        JMethod m2 = newMethod("m2");
+        IR ir1 = m1.getIR();
+        assertSame(ir1, m1.getIR());
+        m2.getIR(); // evicts the IR of m1
+        IR rebuilt = m1.getIR();
+        assertNotSame(ir1, rebuilt);
+        assertSame(m1, rebuilt.getMethod());
+        assertEquals(3, builds);
+    }
+
+    @Test
+    public void testPinnedIRIsKept() {
+        JMethod m1 = newMethod("m1");
+        JMethod m2 = newMethod("m2");
+        IR ir1 = m1.pinIR();
+        m2.getIR();
+        assertSame(ir1, m1.getIR());
+        m1.unpinIR(); // m1 enters the cache and evicts the IR of m2
+        m2.getIR(); // rebuilds m2 and evicts the IR of m1
+        assertNotSame(ir1, m1.getIR());
+        assertEquals(4, builds);
+    }
+
+    @Test
+    public void testReachableIRIsNotPinned() {
+        JMethod m1 = newMethod("m1");
+        JMethod m2 = newMethod("m2");
+        DefaultCallGraph callGraph = new DefaultCallGraph();
+        callGraph.addReachableMethod(m1);
+        IR ir1 = m1.getIR();
+        m2.getIR(); // evicts the IR of reachable method m1
+        assertNotSame(ir1, m1.getIR());
+    }
+
+    @Test
+    public void testRebuildCallback() {
+        JMethod m1 = newMethod("m1");
+        JMethod m2 = newMethod("m2");
+        JMethod.addIRRebuildCallback(ir -> ir.storeResult("id", "rebuilt"));
+        IR ir1 = m1.getIR();
+        assertNull(ir1.getResult("id"));
+        m2.getIR(); // evicts the IR of m1
+        assertEquals("rebuilt", m1.getIR().getResult("id"));
+    }
+
+    @Test
+    public void testDisabledCache() {
+        JMethod.setIRCacheCapacity(0);
+        JMethod m1 = newMethod("m1");
+        JMethod m2 = newMethod("m2");
+        IR ir1 = m1.getIR();
+        m2.getIR();
+        assertSame(ir1, m1.getIR());
+        assertEquals(2, builds);
+    }
+}
@@ -0,0 +1,24 @@
+public class Literals {
+
+    public static void main(String[] args) {
+        Object s = "rta";
+        Object c = Literals.class;
+        Object a = new Box();
+        s.equals(c);
+        a.equals(s);
+    }
+}
+
+class Box {
+
+    public boolean equals(Object o) {
+        return false;
+    }
+}
+
+class Crate {
+
+    public boolean equals(Object o) {
+        return true;
+    }
+}
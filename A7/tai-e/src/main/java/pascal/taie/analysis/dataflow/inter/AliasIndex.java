@@ -0,0 +1,235 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.ArrayAccess;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.LValue;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.JField;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the heap stores that may be read by each heap load, built once
+ * from the points-to result so that alias-aware analyses do not need to
+ * query points-to sets and intersect them on every transfer.
+ * <p>
+ * Stores to instance fields are bucketed by (field, object), stores to
+ * arrays by (array object, constant index), and stores to static fields
+ * by field. An index is constant if its variable is only ever assigned
+ * one int literal. Array accesses with any other index go to a separate
+ * bucket of the array object, as they may touch any element. The stores
+ * relevant to a load are then the union of the buckets selected by the
+ * load's base variable, and the inverse relation tells which loads must be
+ * revisited after the value written by a store changes.
+ */
+class AliasIndex {
+
+    private final PointerAnalysisResult pta;
+
+    /**
+     * Stores to static fields, keyed by the field.
+     */
+    private final MultiMap<JField, Stmt> staticStores = Maps.newMultiMap();
+
+    /**
+     * Stores to instance fields, keyed by the field and then by the
+     * objects pointed to by the base variable of the store.
+     */
+    private final Map<JField, MultiMap<Obj, Stmt>> instanceStores = Maps.newMap();
+
+    /**
+     * Stores to arrays with a constant index, keyed by the array objects
+     * pointed to by the base variable of the store and then by the index.
+     */
+    private final Map<Obj, MultiMap<Integer, Stmt>> constIndexArrayStores = Maps.newMap();
+
+    /**
+     * Stores to arrays with a non-constant index, keyed by the array
+     * objects pointed to by the base variable of the store.
+     */
+    private final MultiMap<Obj, Stmt> varIndexArrayStores = Maps.newMultiMap();
+
+    /**
+     * Int literals held by variables whose only definitions assign them.
+     */
+    private final Map<Var, Integer> intConsts = Maps.newMap();
+
+    /**
+     * Variables that are defined by something other than a single int literal.
+     */
+    private final Set<Var> nonConsts = Sets.newSet();
+
+    /**
+     * Cache of the stores relevant to each load.
+     */
+    private final Map<Stmt, Set<Stmt>> relevantStores = Maps.newMap();
+
+    /**
+     * Loads affected by each store.
+     */
+    private final MultiMap<Stmt, Stmt> affectedLoads = Maps.newMultiMap();
+
+    AliasIndex(PointerAnalysisResult pta, Iterable<Stmt> stmts) {
+        this.pta = pta;
+        for (Stmt stmt : stmts) {
+            if (stmt instanceof DefinitionStmt) {
+                addDefinition((DefinitionStmt<?, ?>) stmt);
+            }
+        }
+        for (Stmt stmt : stmts) {
+            if (stmt instanceof StoreField) {
+                addStore((StoreField) stmt);
+            } else if (stmt instanceof StoreArray) {
+                addStore((StoreArray) stmt);
+            }
+        }
+        for (Stmt stmt : stmts) {
+            if (stmt instanceof LoadField || stmt instanceof LoadArray) {
+                getRelevantStores(stmt)
+                        .forEach(store -> affectedLoads.put(store, stmt));
+            }
+        }
+    }
+
+    private void addDefinition(DefinitionStmt<?, ?> def) {
+        LValue lhs = def.getLValue();
+        if (lhs instanceof Var) {
+            Var var = (Var) lhs;
+            RValue rhs = def.getRValue();
+            if (!(rhs instanceof IntLiteral)) {
+                nonConsts.add(var);
+            } else {
+                int value = ((IntLiteral) rhs).getValue();
+                Integer prev = intConsts.putIfAbsent(var, value);
+                if (prev != null && prev != value) {
+                    nonConsts.add(var);
+                }
+            }
+        }
+    }
+
+    private void addStore(StoreField store) {
+        JField field = store.getFieldRef().resolve();
+        if (store.isStatic()) {
+            staticStores.put(field, store);
+        } else {
+            MultiMap<Obj, Stmt> stores = instanceStores.computeIfAbsent(
+                    field, unused -> Maps.newMultiMap());
+            InstanceFieldAccess access = (InstanceFieldAccess) store.getFieldAccess();
+            pta.getPointsToSet(access.getBase())
+                    .forEach(obj -> stores.put(obj, store));
+        }
+    }
+
+    private void addStore(StoreArray store) {
+        ArrayAccess access = store.getArrayAccess();
+        Integer index = getConstantIndex(access);
+        pta.getPointsToSet(access.getBase()).forEach(obj -> {
+            if (index != null) {
+                constIndexArrayStores.computeIfAbsent(obj,
+                        unused -> Maps.newMultiMap()).put(index, store);
+            } else {
+                varIndexArrayStores.put(obj, store);
+            }
+        });
+    }
+
+    /**
+     * @return the index of {@code access} if its variable always holds
+     * the same int literal, otherwise null.
+     */
+    @Nullable
+    private Integer getConstantIndex(ArrayAccess access) {
+        Var index = access.getIndex();
+        return nonConsts.contains(index) ? null : intConsts.get(index);
+    }
+
+    /**
+     * @return the stores whose written value may be read by {@code load},
+     * i.e., the stores to the same static field, or to the same
+     * field/array of an object that the base variable of {@code load}
+     * may point to. Array stores and loads whose indexes are distinct
+     * constants are never related. Empty if {@code load} is not a heap load.
+     */
+    Set<Stmt> getRelevantStores(Stmt load) {
+        return relevantStores.computeIfAbsent(load, this::computeRelevantStores);
+    }
+
+    private Set<Stmt> computeRelevantStores(Stmt load) {
+        Set<Stmt> stores = Sets.newHybridSet();
+        if (load instanceof LoadField) {
+            LoadField loadField = (LoadField) load;
+            JField field = loadField.getFieldRef().resolve();
+            if (loadField.isStatic()) {
+                stores.addAll(staticStores.get(field));
+            } else {
+                MultiMap<Obj, Stmt> fieldStores = instanceStores.get(field);
+                if (fieldStores != null) {
+                    InstanceFieldAccess access =
+                            (InstanceFieldAccess) loadField.getFieldAccess();
+                    pta.getPointsToSet(access.getBase())
+                            .forEach(obj -> stores.addAll(fieldStores.get(obj)));
+                }
+            }
+        } else if (load instanceof LoadArray) {
+            ArrayAccess access = ((LoadArray) load).getArrayAccess();
+            Integer index = getConstantIndex(access);
+            pta.getPointsToSet(access.getBase()).forEach(obj -> {
+                stores.addAll(varIndexArrayStores.get(obj));
+                MultiMap<Integer, Stmt> constStores = constIndexArrayStores.get(obj);
+                if (constStores != null) {
+                    if (index != null) {
+                        stores.addAll(constStores.get(index));
+                    } else {
+                        stores.addAll(constStores.values());
+                    }
+                }
+            });
+        }
+        return stores;
+    }
+
+    /**
+     * @return the loads that may read the value written by {@code store},
+     * and thus need to be re-processed when that value changes.
+     */
+    Set<Stmt> getAffectedLoads(Stmt store) {
+        return affectedLoads.get(store);
+    }
+}
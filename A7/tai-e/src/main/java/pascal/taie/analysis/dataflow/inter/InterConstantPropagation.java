@@ -25,6 +25,7 @@ package pascal.taie.analysis.dataflow.inter;
 import pascal.taie.World;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.icfg.CallEdge;
@@ -36,10 +37,17 @@ import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
 import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
 import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
 import pascal.taie.language.classes.JMethod;
 
+import java.util.List;
+
 /**
  * Implementation of interprocedural constant propagation for int values.
  */
@@ -50,6 +58,12 @@ public class InterConstantPropagation extends
 
     private final ConstantPropagation cp;
 
+    /**
+     * Index of the stores relevant to each heap load, or null
+     * if the analysis is not alias-aware.
+     */
+    private AliasIndex aliasIndex;
+
     public InterConstantPropagation(AnalysisConfig config) {
         super(config);
         cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
@@ -60,6 +74,9 @@ public class InterConstantPropagation extends
         String ptaId = getOptions().getString("pta");
         PointerAnalysisResult pta = World.get().getResult(ptaId);
         // You can do initialization work here
+        if (getOptions().getBoolean("alias-aware")) {
+            aliasIndex = new AliasIndex(pta, icfg);
+        }
     }
 
     @Override
@@ -86,36 +103,120 @@ public class InterConstantPropagation extends
     @Override
     protected boolean transferCallNode(Stmt stmt, CPFact in, CPFact out) {
         // TODO - finish me
-        return false;
+        return out.copyFrom(in);
     }
 
     @Override
     protected boolean transferNonCallNode(Stmt stmt, CPFact in, CPFact out) {
         // TODO - finish me
-        return false;
+        if (aliasIndex == null) {
+            return cp.transferNode(stmt, in, out);
+        }
+        if (stmt instanceof LoadField || stmt instanceof LoadArray) {
+            Var lhs = (Var) ((DefinitionStmt<?, ?>) stmt).getLValue();
+            if (ConstantPropagation.canHoldInt(lhs)) {
+                CPFact fact = in.copy();
+                fact.update(lhs, meetStoredValues(stmt, in));
+                return out.copyFrom(fact);
+            }
+        }
+        boolean changed = cp.transferNode(stmt, in, out);
+        if (changed && (stmt instanceof StoreField || stmt instanceof StoreArray)) {
+            propagateStore(stmt);
+        }
+        return changed;
     }
 
     @Override
     protected CPFact transferNormalEdge(NormalEdge<Stmt> edge, CPFact out) {
         // TODO - finish me
-        return null;
+        return out;
     }
 
     @Override
     protected CPFact transferCallToReturnEdge(CallToReturnEdge<Stmt> edge, CPFact out) {
         // TODO - finish me
-        return null;
+        CPFact result = out.copy();
+        Var lhs = ((Invoke) edge.getSource()).getLValue();
+        if (lhs != null) {
+            result.remove(lhs);
+        }
+        return result;
     }
 
     @Override
     protected CPFact transferCallEdge(CallEdge<Stmt> edge, CPFact callSiteOut) {
         // TODO - finish me
-        return null;
+        InvokeExp invokeExp = ((Invoke) edge.getSource()).getInvokeExp();
+        List<Var> params = edge.getCallee().getIR().getParams();
+        CPFact result = newInitialFact();
+        for (int i = 0; i < params.size(); ++i) {
+            result.update(params.get(i), callSiteOut.get(invokeExp.getArg(i)));
+        }
+        return result;
     }
 
     @Override
     protected CPFact transferReturnEdge(ReturnEdge<Stmt> edge, CPFact returnOut) {
         // TODO - finish me
-        return null;
+        CPFact result = newInitialFact();
+        Var lhs = ((Invoke) edge.getCallSite()).getLValue();
+        if (lhs != null) {
+            Value value = Value.getUndef();
+            for (Var returnVar : edge.getReturnVars()) {
+                value = cp.meetValue(value, returnOut.get(returnVar));
+            }
+            result.update(lhs, value);
+        }
+        return result;
+    }
+
+    /**
+     * @return the meet of the values written by the stores
+     * that may be read by the given heap load, whose in fact is {@code in}.
+     */
+    private Value meetStoredValues(Stmt load, CPFact in) {
+        Value value = Value.getUndef();
+        for (Stmt store : aliasIndex.getRelevantStores(load)) {
+            CPFact storeIn = solver.getInFact(store);
+            Var stored;
+            if (store instanceof StoreField) {
+                stored = ((StoreField) store).getRValue();
+            } else {
+                StoreArray storeArray = (StoreArray) store;
+                Var loadIndex = ((LoadArray) load).getArrayAccess().getIndex();
+                Var storeIndex = storeArray.getArrayAccess().getIndex();
+                if (!mayAlias(in.get(loadIndex), storeIn.get(storeIndex))) {
+                    continue;
+                }
+                stored = storeArray.getRValue();
+            }
+            if (ConstantPropagation.canHoldInt(stored)) {
+                value = cp.meetValue(value, storeIn.get(stored));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return whether two array indexes with the given values may
+     * refer to the same element. An undefined index refers to no element.
+     */
+    private static boolean mayAlias(Value i1, Value i2) {
+        if (i1.isUndef() || i2.isUndef()) {
+            return false;
+        }
+        if (i1.isConstant() && i2.isConstant()) {
+            return i1.getConstant() == i2.getConstant();
+        }
+        return true;
+    }
+
+    /**
+     * Re-enqueues the loads that may read the value written by
+     * the given store, so that they observe its new value.
+     */
+    private void propagateStore(Stmt store) {
+        solver.addToWorkList(aliasIndex.getAffectedLoads(store));
     }
 }
@@ -23,9 +23,11 @@
 package pascal.taie.analysis.dataflow.inter;
 
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.MapDataflowResult;
 import pascal.taie.analysis.graph.icfg.ICFG;
 import pascal.taie.util.collection.SetQueue;
 
+import java.util.Collection;
 import java.util.Queue;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -52,7 +54,7 @@ class InterSolver<Method, Node, Fact> {
     }
 
     DataflowResult<Node, Fact> solve() {
-        result = new DataflowResult<>();
+        result = new MapDataflowResult<>();
         initialize();
         doSolve();
         return result;
@@ -60,9 +62,48 @@ class InterSolver<Method, Node, Fact> {
 
     private void initialize() {
         // TODO - finish me
+        Set<Node> entries = icfg.entryMethods()
+                .map(icfg::getEntryOf)
+                .collect(Collectors.toSet());
+        icfg.forEach(node -> {
+            if (entries.contains(node)) {
+                result.setInFact(node, analysis.newBoundaryFact(node));
+                result.setOutFact(node, analysis.newBoundaryFact(node));
+            } else {
+                result.setInFact(node, analysis.newInitialFact());
+                result.setOutFact(node, analysis.newInitialFact());
+            }
+        });
     }
 
     private void doSolve() {
         // TODO - finish me
+        workList = new SetQueue<>();
+        icfg.forEach(workList::add);
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            Fact in = result.getInFact(node);
+            icfg.getInEdgesOf(node).forEach(edge -> analysis.meetInto(
+                    analysis.transferEdge(edge, result.getOutFact(edge.getSource())),
+                    in));
+            if (analysis.transferNode(node, in, result.getOutFact(node))) {
+                icfg.getSuccsOf(node).forEach(workList::add);
+            }
+        }
+    }
+
+    /**
+     * @return the in fact of the given node computed so far.
+     */
+    Fact getInFact(Node node) {
+        return result.getInFact(node);
+    }
+
+    /**
+     * Adds the given nodes to the work list so that they are processed
+     * again, e.g., when facts they depend on through the heap change.
+     */
+    void addToWorkList(Collection<Node> nodes) {
+        workList.addAll(nodes);
     }
 }
@@ -43,18 +43,25 @@ public class _2ObjSelector implements ContextSelector {
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
         // TODO - finish me
-        return null;
+        return callSite.getContext();
     }
 
     @Override
     public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
         // TODO - finish me
-        return null;
+        int context_len = recv.getContext().getLength();
+        if (context_len == 0)
+            return ListContext.make(recv.getObject());
+        return ListContext.make(recv.getContext().getElementAt(context_len-1), recv.getObject());
     }
 
     @Override
     public Context selectHeapContext(CSMethod method, Obj obj) {
         // TODO - finish me
-        return null;
+        int context_len = method.getContext().getLength();
+        if (context_len == 0)
+            return ListContext.make();
+
+        return ListContext.make(method.getContext().getElementAt(context_len - 1));
     }
 }
@@ -44,6 +44,11 @@ public class InterCPAliasTest {
         test("Array");
     }
 
+    @Test
+    public void testArrayConstIndex() {
+        test("ArrayConstIndex");
+    }
+
     @Test
     public void testArrayInter2() {
         test("ArrayInter2");
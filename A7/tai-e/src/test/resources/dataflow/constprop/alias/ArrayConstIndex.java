@@ -0,0 +1,45 @@
+class ArrayConstIndex {
+
+    public static void main(String[] args) {
+        unrolled();
+        varIndex(args.length);
+        aliased();
+    }
+
+    static void unrolled() {
+        int[] a = new int[4];
+        a[0] = 10;
+        a[1] = 11;
+        a[2] = 12;
+        a[3] = 13;
+        int x0 = a[0];
+        int x1 = a[1];
+        int x2 = a[2];
+        int x3 = a[3];
+        int sum = x0 + x1 + x2 + x3;
+    }
+
+    static void varIndex(int n) {
+        int[] a = new int[8];
+        a[0] = 1;
+        a[1] = 2;
+        a[n] = 3;
+        int x = a[0];
+        int y = a[5];
+        int i = 1;
+        int z = a[i];
+    }
+
+    static void aliased() {
+        int[] a = new int[4];
+        int[] b = a;
+        int[] c = new int[4];
+        a[0] = 1;
+        b[1] = 2;
+        c[0] = 3;
+        int x = b[0];
+        int y = a[1];
+        int z = c[0];
+        int w = c[1];
+    }
+}